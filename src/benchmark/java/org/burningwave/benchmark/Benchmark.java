@@ -0,0 +1,114 @@
+package org.burningwave.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.burningwave.VirtualThreads;
+import org.burningwave.services.NexusConnector;
+import org.burningwave.services.RestController;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures the throughput of the stats queries issued concurrently by platform threads and by virtual
+ * threads (when supported by the JDK). The memos of the aggregated queries are disabled and the in-memory
+ * cache and the rollups of the Nexus connector group are cleared before each pass, so that the queries
+ * are served by the connectors.
+ * The connectors run on virtual threads when the application is launched with 'executors.virtual-threads'
+ * set to true: comparing the output of a launch with and without it compares the two execution modes.
+ * Usage: mvn -Pbenchmark compile exec:exec -Dmain-class=org.burningwave.benchmark.Benchmark
+ *        -Dbenchmark.args="--benchmark.requests=1000 --benchmark.concurrency=200"
+ */
+public class Benchmark {
+	private final static org.slf4j.Logger logger;
+
+	private final RestController restController;
+
+	private final NexusConnector.Group nexusConnectorGroup;
+
+	private final int requests;
+
+	private final int concurrency;
+
+	private final boolean virtualThreadsEnabled;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(Benchmark.class);
+    }
+
+	private Benchmark(ConfigurableApplicationContext applicationContext) {
+		restController = applicationContext.getBean(RestController.class);
+		nexusConnectorGroup = applicationContext.getBeanProvider(NexusConnector.Group.class).getIfAvailable();
+		requests = applicationContext.getEnvironment().getProperty("benchmark.requests", Integer.class, 1000);
+		concurrency = applicationContext.getEnvironment().getProperty("benchmark.concurrency", Integer.class, 200);
+		virtualThreadsEnabled = applicationContext.getEnvironment().getProperty("executors.virtual-threads", Boolean.class, false);
+	}
+
+	public static void main(String[] args) {
+		try (ConfigurableApplicationContext applicationContext = Services.start(args)) {
+			new Benchmark(applicationContext).run();
+		}
+	}
+
+	private void run() {
+		if (nexusConnectorGroup == null) {
+			logger.info("The Nexus connector group is disabled: nothing to measure");
+			return;
+		}
+		//Warm up of the caches and of the JIT
+		run(Executors.newFixedThreadPool(concurrency));
+		report("platform", run(Executors.newFixedThreadPool(concurrency)));
+		if (VirtualThreads.isSupported()) {
+			report("virtual", run(VirtualThreads.newThreadPerTaskExecutor("Benchmark client ")));
+		} else {
+			logger.info("Virtual threads are not supported by this JDK: only the platform threads have been measured");
+		}
+	}
+
+	private long[] run(ExecutorService executor) {
+		nexusConnectorGroup.clearCache();
+		Collection<CompletableFuture<Long>> queries = new ArrayList<>();
+		long[] latencies = new long[requests];
+		AtomicLong failures = new AtomicLong();
+		long startTime = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			int index = i;
+			queries.add(CompletableFuture.supplyAsync(() -> {
+				long queryStartTime = System.nanoTime();
+				try {
+					return restController.getTotalDownloads(null, null, null, null, String.valueOf((index % 120) + 1)).join();
+				} catch (Throwable exc) {
+					failures.incrementAndGet();
+					return null;
+				} finally {
+					latencies[index] = System.nanoTime() - queryStartTime;
+				}
+			}, executor));
+		}
+		CompletableFuture.allOf(queries.toArray(new CompletableFuture[queries.size()])).join();
+		long elapsedTime = System.nanoTime() - startTime;
+		executor.shutdown();
+		return new long[] {elapsedTime, failures.get(), percentile(latencies, 50), percentile(latencies, 99)};
+	}
+
+	private long percentile(long[] latencies, int percentile) {
+		long[] sortedLatencies = latencies.clone();
+		Arrays.sort(sortedLatencies);
+		return sortedLatencies[Math.min(sortedLatencies.length - 1, (sortedLatencies.length * percentile) / 100)];
+	}
+
+	private void report(String clientThreads, long[] result) {
+		logger.info(
+			"{} requests from {} {} client threads with connectors on {} threads: {} requests/s, p50 {} ms, p99 {} ms, {} failures",
+			requests, clientThreads.equals("virtual") ? "unbounded" : String.valueOf(concurrency), clientThreads,
+			virtualThreadsEnabled ? "virtual" : "platform",
+			String.format("%.1f", requests / (result[0] / 1_000_000_000D)),
+			result[2] / 1_000_000, result[3] / 1_000_000, result[1]
+		);
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.burningwave.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.burningwave.services.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the services, without the web server and the database, for the benchmarks that measure them
+ * through their public API. The memos of the aggregated queries are disabled, so that every query is
+ * computed.
+ */
+@SpringBootApplication(scanBasePackages = "org.burningwave.services")
+@EnableAutoConfiguration(exclude = {
+	DataSourceAutoConfiguration.class,
+	HibernateJpaAutoConfiguration.class
+})
+@ImportAutoConfiguration(Application.Environment.class)
+public class Services {
+
+	public static ConfigurableApplicationContext start(String... args) {
+		//The command line arguments take precedence over the configuration file
+		List<String> arguments = new ArrayList<>();
+		arguments.add("--nexus-connector.group.all-stats.memo.ttl=0");
+		arguments.addAll(Arrays.asList(args));
+		return new SpringApplicationBuilder(Services.class).web(WebApplicationType.NONE).run(
+			arguments.toArray(new String[arguments.size()])
+		);
+	}
+
+}
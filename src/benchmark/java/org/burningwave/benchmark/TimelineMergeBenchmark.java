@@ -0,0 +1,65 @@
+package org.burningwave.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.burningwave.services.NexusConnector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures the aggregated stats query of the Nexus connector group on the last 'months' months, that
+ * slices the timelines of the artifacts and merges them into the downloads per month. The stats are
+ * loaded from Nexus in the in-memory cache during the setup, so the measured queries are served by the
+ * cache and the memos are disabled by the Services bootstrap: the time and, with the GC profiler, the
+ * bytes allocated per operation are the ones of the slicing and of the merge.
+ * The Nexus connector group must be configured as for the application.
+ * Usage: mvn -Pbenchmark compile exec:exec -Dbenchmark.args="TimelineMergeBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class TimelineMergeBenchmark {
+
+	@Param({"12", "180"})
+	private int months;
+
+	private ConfigurableApplicationContext applicationContext;
+
+	private NexusConnector.Group nexusConnectorGroup;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		applicationContext = Services.start();
+		nexusConnectorGroup = applicationContext.getBeanProvider(NexusConnector.Group.class).getIfAvailable();
+		if (nexusConnectorGroup == null) {
+			throw new IllegalStateException("The Nexus connector group is disabled: nothing to measure");
+		}
+		nexusConnectorGroup.getAllStats(null, null, null, null, months);
+	}
+
+	@Benchmark
+	public NexusConnector.GetAllStatsOutput getAllStats() throws Exception {
+		return nexusConnectorGroup.getAllStats(null, null, null, null, months);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		applicationContext.close();
+	}
+
+}
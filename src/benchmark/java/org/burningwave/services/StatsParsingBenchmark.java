@@ -0,0 +1,79 @@
+package org.burningwave.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the parsing of a stats timeline response of the Nexus connector through the StAX reader
+ * with the previous parsing, that unmarshalled the response body, materialized as a String, with a
+ * new JAXB unmarshaller. The response contains a timeline of 'months' values.
+ * Usage: mvn -Pbenchmark compile exec:exec -Dbenchmark.args="StatsParsingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class StatsParsingBenchmark {
+
+	@Param({"12", "180"})
+	private int months;
+
+	private byte[] response;
+
+	private JAXBContext jaxbContext;
+
+	@Setup
+	public void setup() throws JAXBException {
+		response = buildResponse(months);
+		jaxbContext = JAXBContext.newInstance(NexusConnector.GetStatsOutput.class);
+	}
+
+	@Benchmark
+	public NexusConnector.GetStatsOutput jaxb() throws JAXBException {
+		return (NexusConnector.GetStatsOutput)jaxbContext.createUnmarshaller().unmarshal(
+			new StringReader(new String(response, StandardCharsets.UTF_8))
+		);
+	}
+
+	@Benchmark
+	public NexusConnector.GetStatsOutput stAX() throws IOException {
+		return NexusConnector.readStats(new ByteArrayInputStream(response));
+	}
+
+	private static byte[] buildResponse(int months) {
+		StringBuilder response = new StringBuilder("<statsTimelineResp><data>")
+			.append("<projectId>a1b2c3</projectId><groupId>org.burningwave</groupId>")
+			.append("<artifactId>core</artifactId><type>raw</type>");
+		long total = 0;
+		StringBuilder timeline = new StringBuilder("<timeline>");
+		for (int i = 0; i < months; i++) {
+			int value = 1000 + (i * 37) % 5000;
+			total += value;
+			timeline.append("<int>").append(value).append("</int>");
+		}
+		timeline.append("</timeline>");
+		response.append("<total>").append(total).append("</total>").append(timeline).append("</data></statsTimelineResp>");
+		return response.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+}
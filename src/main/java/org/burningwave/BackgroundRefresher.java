@@ -0,0 +1,79 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs the refresh of the expired cache entries outside of the request threads: at most one refresh
+ * per key is pending at any time and, if the executor is saturated, the refresh is simply skipped
+ * (the caller keeps serving the stale value and will retry on a next request).
+ */
+public class BackgroundRefresher {
+	private final static org.slf4j.Logger logger;
+
+	private ThreadPoolExecutor executor;
+	private Set<String> pendingRefreshes;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(BackgroundRefresher.class);
+    }
+
+	public BackgroundRefresher(ThreadPoolExecutor executor) {
+		this.executor = executor;
+		pendingRefreshes = ConcurrentHashMap.newKeySet();
+		logger.info("Background refresher successfully instantiated with {} threads", executor.getMaximumPoolSize());
+	}
+
+	public boolean refresh(String key, Runnable refresher) {
+		if (!pendingRefreshes.add(key)) {
+			return false;
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					refresher.run();
+				} catch (Throwable exc) {
+					logger.warn("Exception occurred while refreshing {} in background", key, exc);
+				} finally {
+					pendingRefreshes.remove(key);
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException exc) {
+			pendingRefreshes.remove(key);
+			logger.warn("Background refresh of {} skipped: {}", key, exc.getMessage());
+			return false;
+		}
+	}
+
+}
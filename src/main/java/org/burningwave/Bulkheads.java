@@ -0,0 +1,208 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the named executors on which the blocking calls to the different upstreams are isolated,
+ * so that the slowness of one of them can't exhaust the threads used for the others. Each executor is
+ * configured by the entries prefixed with its name ('pool-size', 'queue-capacity' and 'rejection-policy',
+ * that can be 'caller-runs' or 'abort'); the executors whose name is not configured take the
+ * configuration of their group (e.g. 'nexus' for 'nexus@oss.sonatype.org') or the default one.
+ * When the 'virtual-threads' entry is true and the JDK supports them, the executors run their tasks
+ * on virtual threads and the pool size only limits the number of concurrent calls to the upstream.
+ * The schedulers are configured only by their pool size: they must run short tasks, that are never rejected
+ * until the registry is shut down.
+ */
+public class Bulkheads {
+	private final static org.slf4j.Logger logger;
+
+	private Map<String, Object> configMap;
+	private Map<String, Bulkhead> bulkheads;
+	private boolean virtualThreadsEnabled;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(Bulkheads.class);
+    }
+
+	public Bulkheads(Map<String, Object> configMap) {
+		this.configMap = configMap;
+		bulkheads = new ConcurrentHashMap<>();
+		virtualThreadsEnabled = Boolean.parseBoolean((String)configMap.get("virtual-threads"));
+		if (virtualThreadsEnabled && !VirtualThreads.isSupported()) {
+			logger.warn("Virtual threads are not supported by this JDK: the executors will use platform threads");
+			virtualThreadsEnabled = false;
+		}
+	}
+
+	public boolean isVirtualThreadsEnabled() {
+		return virtualThreadsEnabled;
+	}
+
+	public ThreadPoolExecutor get(String name) {
+		return bulkheads.computeIfAbsent(name, this::create).executor;
+	}
+
+	public ScheduledExecutorService getScheduler(String name) {
+		return (ScheduledExecutorService)bulkheads.computeIfAbsent(name, this::createScheduler).executor;
+	}
+
+	//Invoked by the container when the application is stopped
+	public void shutdown() {
+		for (Bulkhead bulkhead : bulkheads.values()) {
+			bulkhead.executor.shutdown();
+		}
+	}
+
+	private Bulkhead create(String name) {
+		String configurationName = Configurations.resolveName(configMap, name, "pool-size");
+		int poolSize = Integer.parseInt((String)configMap.get(configurationName + ".pool-size"));
+		int queueCapacity = Integer.parseInt((String)configMap.get(configurationName + ".queue-capacity"));
+		String rejectionPolicy = ((String)configMap.get(configurationName + ".rejection-policy")).trim();
+		Bulkhead bulkhead = new Bulkhead();
+		RejectedExecutionHandler rejectionHandler;
+		if ("caller-runs".equalsIgnoreCase(rejectionPolicy)) {
+			rejectionHandler = (runnable, executor) -> {
+				bulkhead.rejectedCount.incrementAndGet();
+				if (!executor.isShutdown()) {
+					runnable.run();
+				}
+			};
+		} else if ("abort".equalsIgnoreCase(rejectionPolicy)) {
+			rejectionHandler = (runnable, executor) -> {
+				bulkhead.rejectedCount.incrementAndGet();
+				throw new RejectedExecutionException("Executor " + name + " is saturated");
+			};
+		} else {
+			throw new IllegalArgumentException("Unsupported rejection policy for executor " + name + ": " + rejectionPolicy);
+		}
+		bulkhead.queueCapacity = queueCapacity;
+		bulkhead.executor = new ThreadPoolExecutor(
+			poolSize, poolSize,
+			60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(queueCapacity),
+			newThreadFactory(name),
+			rejectionHandler
+		);
+		bulkhead.executor.allowCoreThreadTimeOut(true);
+		logger.info(
+			"Executor {} successfully instantiated with {} {} threads and a queue of {} tasks",
+			name, poolSize, virtualThreadsEnabled ? "virtual" : "platform", queueCapacity
+		);
+		return bulkhead;
+	}
+
+	private Bulkhead createScheduler(String name) {
+		String configurationName = Configurations.resolveName(configMap, name, "pool-size");
+		int poolSize = Integer.parseInt((String)configMap.get(configurationName + ".pool-size"));
+		Bulkhead bulkhead = new Bulkhead();
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+			poolSize,
+			newThreadFactory(name),
+			(runnable, rejectingExecutor) -> {
+				bulkhead.rejectedCount.incrementAndGet();
+				throw new RejectedExecutionException("Scheduler " + name + " is shut down");
+			}
+		);
+		//The cancelled tasks, like the timeouts of the completed requests, don't wait their delay in the queue
+		executor.setRemoveOnCancelPolicy(true);
+		bulkhead.queueCapacity = Integer.MAX_VALUE;
+		bulkhead.executor = executor;
+		logger.info(
+			"Scheduler {} successfully instantiated with {} {} threads",
+			name, poolSize, virtualThreadsEnabled ? "virtual" : "platform"
+		);
+		return bulkhead;
+	}
+
+	private ThreadFactory newThreadFactory(String name) {
+		if (virtualThreadsEnabled) {
+			return VirtualThreads.newThreadFactory(name + " executor ");
+		}
+		AtomicInteger threadCounter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + " executor " + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	public Map<String, Stats> getStats() {
+		Map<String, Stats> allStats = new TreeMap<>();
+		for (Map.Entry<String, Bulkhead> bulkhead : bulkheads.entrySet()) {
+			ThreadPoolExecutor executor = bulkhead.getValue().executor;
+			Stats stats = new Stats();
+			stats.setPoolSize(executor.getMaximumPoolSize());
+			stats.setActiveCount(executor.getActiveCount());
+			stats.setUtilization((double)executor.getActiveCount() / executor.getMaximumPoolSize());
+			stats.setQueueSize(executor.getQueue().size());
+			stats.setQueueCapacity(bulkhead.getValue().queueCapacity);
+			stats.setCompletedTaskCount(executor.getCompletedTaskCount());
+			stats.setRejectedCount(bulkhead.getValue().rejectedCount.get());
+			allStats.put(bulkhead.getKey(), stats);
+		}
+		return allStats;
+	}
+
+	private static class Bulkhead {
+		private ThreadPoolExecutor executor;
+		private int queueCapacity;
+		private final AtomicLong rejectedCount = new AtomicLong();
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private int poolSize;
+		private int activeCount;
+		private double utilization;
+		private int queueSize;
+		private int queueCapacity;
+		private long completedTaskCount;
+		private long rejectedCount;
+
+	}
+
+}
@@ -0,0 +1,342 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Registry of the circuit breakers that protect the calls to the upstream hosts. A circuit breaker opens
+ * when the failure rate of the last calls exceeds the threshold and, while open, fails the calls immediately
+ * (so that the connectors fall back to the cached values). When the open duration elapses a single probe
+ * call at a time is let through: its success closes the circuit, its failure opens it again. The failed
+ * calls are retried only while the token bucket of the retry budget, refilled by the successful calls and
+ * by a minimum rate per second, has tokens. The circuit breakers are configured like the {@link Bulkheads}.
+ */
+public class CircuitBreakers {
+	private final static org.slf4j.Logger logger;
+
+	private Map<String, Object> configMap;
+	private Map<String, CircuitBreaker> circuitBreakers;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(CircuitBreakers.class);
+    }
+
+	public CircuitBreakers(Map<String, Object> configMap) {
+		this.configMap = configMap;
+		circuitBreakers = new ConcurrentHashMap<>();
+	}
+
+	public CircuitBreaker get(String name) {
+		return circuitBreakers.computeIfAbsent(name, this::create);
+	}
+
+	private CircuitBreaker create(String name) {
+		String configurationName = Configurations.resolveName(configMap, name, "failure-rate-threshold");
+		CircuitBreaker circuitBreaker = new CircuitBreaker(name, configurationName);
+		logger.info(
+			"Circuit breaker {} successfully instantiated with a failure rate threshold of {} on the last {} calls",
+			name, circuitBreaker.failureRateThreshold, circuitBreaker.outcomes.length
+		);
+		return circuitBreaker;
+	}
+
+	private String getConfigValue(String configurationName, String key) {
+		return (String)configMap.get(configurationName + "." + key);
+	}
+
+	//The client errors (except the throttling) mean that the upstream is healthy
+	public static boolean isFailure(Throwable exc) {
+		if (exc instanceof HttpClientErrorException) {
+			return ((HttpClientErrorException)exc).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+		}
+		return exc instanceof HttpServerErrorException || exc instanceof ResourceAccessException || !(exc instanceof RuntimeException);
+	}
+
+	public Map<String, Stats> getStats() {
+		Map<String, Stats> allStats = new TreeMap<>();
+		for (Map.Entry<String, CircuitBreaker> circuitBreaker : circuitBreakers.entrySet()) {
+			allStats.put(circuitBreaker.getKey(), circuitBreaker.getValue().getStats());
+		}
+		return allStats;
+	}
+
+	public static enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	public class CircuitBreaker {
+		private final String name;
+		private final double failureRateThreshold;
+		private final int minimumCalls;
+		private final long openDuration;
+		private final int maxRetries;
+		private final long retryBackoff;
+		private final boolean[] outcomes;
+		private int outcomeIndex;
+		private int recordedCalls;
+		private int failedCalls;
+		private State state;
+		private long openingTime;
+		private final AtomicBoolean probeInProgress;
+		private final RetryBudget retryBudget;
+		private final AtomicLong successCount;
+		private final AtomicLong failureCount;
+		private final AtomicLong shortCircuitedCount;
+		private final AtomicLong retryCount;
+		private final AtomicLong retryBudgetExhaustedCount;
+
+		private CircuitBreaker(String name, String configurationName) {
+			this.name = name;
+			failureRateThreshold = Double.parseDouble(getConfigValue(configurationName, "failure-rate-threshold"));
+			minimumCalls = Integer.parseInt(getConfigValue(configurationName, "minimum-calls"));
+			openDuration = Long.parseLong(getConfigValue(configurationName, "open-duration"));
+			maxRetries = Integer.parseInt(getConfigValue(configurationName, "max-retries"));
+			retryBackoff = Long.parseLong(getConfigValue(configurationName, "retry-backoff"));
+			outcomes = new boolean[Integer.parseInt(getConfigValue(configurationName, "window-size"))];
+			state = State.CLOSED;
+			probeInProgress = new AtomicBoolean();
+			retryBudget = new RetryBudget(
+				Double.parseDouble(getConfigValue(configurationName, "retry-budget.capacity")),
+				Double.parseDouble(getConfigValue(configurationName, "retry-budget.ratio")),
+				Double.parseDouble(getConfigValue(configurationName, "retry-budget.min-per-second"))
+			);
+			successCount = new AtomicLong();
+			failureCount = new AtomicLong();
+			shortCircuitedCount = new AtomicLong();
+			retryCount = new AtomicLong();
+			retryBudgetExhaustedCount = new AtomicLong();
+		}
+
+		public <T> T execute(Locks.ThrowingSupplier<T> call) {
+			for (int attempt = 0; ; attempt++) {
+				boolean probe = acquirePermission();
+				try {
+					T output = call.get();
+					onSuccess(probe);
+					return output;
+				} catch (Throwable exc) {
+					if (!isFailure(exc)) {
+						onSuccess(probe);
+						return Throwables.rethrow(exc);
+					}
+					onFailure(probe);
+					if (probe || attempt >= maxRetries || Deadline.current().getRemainingTime() <= retryBackoff) {
+						return Throwables.rethrow(exc);
+					}
+					if (!retryBudget.tryAcquire()) {
+						retryBudgetExhaustedCount.incrementAndGet();
+						return Throwables.rethrow(exc);
+					}
+					retryCount.incrementAndGet();
+					logger.debug("Retrying call to {} after failure: {}", name, exc.getMessage());
+					try {
+						Thread.sleep(retryBackoff);
+					} catch (InterruptedException interruptedException) {
+						Thread.currentThread().interrupt();
+						return Throwables.rethrow(exc);
+					}
+				}
+			}
+		}
+
+		public synchronized State getState() {
+			if (state == State.OPEN && System.currentTimeMillis() - openingTime >= openDuration) {
+				return State.HALF_OPEN;
+			}
+			return state;
+		}
+
+		private synchronized boolean acquirePermission() {
+			if (state == State.OPEN && System.currentTimeMillis() - openingTime >= openDuration) {
+				transitionTo(State.HALF_OPEN);
+			}
+			if (state == State.CLOSED) {
+				return false;
+			}
+			if (state == State.HALF_OPEN && probeInProgress.compareAndSet(false, true)) {
+				return true;
+			}
+			shortCircuitedCount.incrementAndGet();
+			throw new OpenException("Circuit breaker " + name + " is open");
+		}
+
+		private synchronized void onSuccess(boolean probe) {
+			successCount.incrementAndGet();
+			retryBudget.deposit();
+			if (probe) {
+				probeInProgress.set(false);
+				transitionTo(State.CLOSED);
+				return;
+			}
+			record(false);
+		}
+
+		private synchronized void onFailure(boolean probe) {
+			failureCount.incrementAndGet();
+			if (probe) {
+				probeInProgress.set(false);
+				transitionTo(State.OPEN);
+				return;
+			}
+			record(true);
+			if (state == State.CLOSED && recordedCalls >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+				transitionTo(State.OPEN);
+			}
+		}
+
+		private void record(boolean failed) {
+			if (recordedCalls == outcomes.length) {
+				if (outcomes[outcomeIndex]) {
+					failedCalls--;
+				}
+			} else {
+				recordedCalls++;
+			}
+			outcomes[outcomeIndex] = failed;
+			if (failed) {
+				failedCalls++;
+			}
+			outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+		}
+
+		private double getFailureRate() {
+			return recordedCalls > 0 ? (double)failedCalls / recordedCalls : 0;
+		}
+
+		private void transitionTo(State newState) {
+			if (state == newState) {
+				return;
+			}
+			logger.warn("Circuit breaker {} transitioned from {} to {}", name, state, newState);
+			state = newState;
+			if (newState == State.OPEN) {
+				openingTime = System.currentTimeMillis();
+			} else if (newState == State.CLOSED) {
+				recordedCalls = 0;
+				failedCalls = 0;
+				outcomeIndex = 0;
+			}
+		}
+
+		private synchronized Stats getStats() {
+			Stats stats = new Stats();
+			stats.setState(state);
+			stats.setFailureRate(getFailureRate());
+			stats.setRecordedCalls(recordedCalls);
+			stats.setSuccessCount(successCount.get());
+			stats.setFailureCount(failureCount.get());
+			stats.setShortCircuitedCount(shortCircuitedCount.get());
+			stats.setRetryCount(retryCount.get());
+			stats.setRetryBudgetExhaustedCount(retryBudgetExhaustedCount.get());
+			stats.setRetryBudgetTokens(retryBudget.getTokens());
+			return stats;
+		}
+
+	}
+
+	private static class RetryBudget {
+		private final double capacity;
+		private final double ratio;
+		private final double minPerSecond;
+		private double tokens;
+		private long lastRefillTime;
+
+		private RetryBudget(double capacity, double ratio, double minPerSecond) {
+			this.capacity = capacity;
+			this.ratio = ratio;
+			this.minPerSecond = minPerSecond;
+			tokens = capacity;
+			lastRefillTime = System.currentTimeMillis();
+		}
+
+		private synchronized void deposit() {
+			tokens = Math.min(capacity, tokens + ratio);
+		}
+
+		private synchronized boolean tryAcquire() {
+			refill();
+			if (tokens < 1) {
+				return false;
+			}
+			tokens--;
+			return true;
+		}
+
+		private synchronized double getTokens() {
+			refill();
+			return tokens;
+		}
+
+		private void refill() {
+			long now = System.currentTimeMillis();
+			tokens = Math.min(capacity, tokens + ((now - lastRefillTime) * minPerSecond / 1000D));
+			lastRefillTime = now;
+		}
+
+	}
+
+	public static class OpenException extends RuntimeException {
+
+		private static final long serialVersionUID = -2745136851378264725L;
+
+		public OpenException(String message) {
+			super(message);
+		}
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private State state;
+		private double failureRate;
+		private int recordedCalls;
+		private long successCount;
+		private long failureCount;
+		private long shortCircuitedCount;
+		private long retryCount;
+		private long retryBudgetExhaustedCount;
+		private double retryBudgetTokens;
+
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.Serializable;
+
+public interface Codec {
+
+	public byte[] encode(Serializable object) throws IOException;
+
+	public <T extends Serializable> T decode(byte[] objectAsBytes) throws IOException, ClassNotFoundException;
+
+	public static Codec forName(String name) {
+		if (name == null || "java".equalsIgnoreCase(name.trim())) {
+			return new JavaSerialization();
+		}
+		try {
+			return (Codec)Class.forName(name.trim()).getDeclaredConstructor().newInstance();
+		} catch (Throwable exc) {
+			throw new IllegalArgumentException("Cannot instantiate codec " + name, exc);
+		}
+	}
+
+	public static boolean isJavaSerialized(byte[] objectAsBytes) {
+		return objectAsBytes.length > 1 &&
+			objectAsBytes[0] == (byte)(ObjectStreamConstants.STREAM_MAGIC >>> 8) &&
+			objectAsBytes[1] == (byte)ObjectStreamConstants.STREAM_MAGIC;
+	}
+
+	public static class JavaSerialization implements Codec {
+
+		@Override
+		public byte[] encode(Serializable object) throws IOException {
+			try (ByteArrayOutputStream bAOS = new ByteArrayOutputStream(); ObjectOutputStream oOS = new ObjectOutputStream(bAOS);) {
+		        oOS.writeObject(object);
+		        oOS.flush();
+		        return bAOS.toByteArray();
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T extends Serializable> T decode(byte[] objectAsBytes) throws IOException, ClassNotFoundException {
+			try (ObjectInputStream oIS = new ObjectInputStream(new ByteArrayInputStream(objectAsBytes))) {
+				return (T)oIS.readObject();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Map;
+
+/**
+ * Resolution of the configurations of the components created by name by the registries (executors, HTTP
+ * clients, circuit breakers and upstreams). A component takes the entries prefixed with its own name if
+ * present, otherwise the ones of its group, i.e. the part of the name before the '@' (e.g. 'nexus' for
+ * 'nexus@oss.sonatype.org'), and at last the ones prefixed with 'default'.
+ */
+public class Configurations {
+	public final static String DEFAULT_NAME = "default";
+
+	//Returns the prefix of the entries of the component, probing them with the passed key
+	public static String resolveName(Map<String, Object> configMap, String name, String key) {
+		if (configMap.containsKey(name + "." + key)) {
+			return name;
+		}
+		String baseName = name.split("@")[0];
+		if (configMap.containsKey(baseName + "." + key)) {
+			return baseName;
+		}
+		return DEFAULT_NAME;
+	}
+
+}
@@ -30,18 +30,29 @@ package org.burningwave;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
-import javax.transaction.Transactional;
+import javax.persistence.UniqueConstraint;
+import javax.sql.DataSource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -50,35 +61,121 @@ import lombok.ToString;
 
 public class DBBasedCache extends SimpleCache.Abst {
 	private final static org.slf4j.Logger logger;
+	//The id is generated as Hibernate does for GenerationType.AUTO on PostgreSQL
+	private final static String UPSERT_STATEMENT =
+		"INSERT INTO cache_item (id, key, value) VALUES (nextval('hibernate_sequence'), ?, ?) " +
+		"ON CONFLICT (key) DO UPDATE SET value = EXCLUDED.value";
+	private final static String DELETE_STATEMENT = "DELETE FROM cache_item WHERE key = ?";
+	private final static String MIGRATION_SCRIPT = "db/cache_item_key_unique.sql";
+	private final static String UNIQUE_INDEX_QUERY =
+		"SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'cache_item' AND indexname = 'cache_item_key_unique'";
 
 	@Autowired
 	private Item.Repository repository;
 
+	@Autowired
+	private DataSource dataSource;
+
 	@Autowired
 	private Utility utility;
 
+	private JdbcTemplate jdbcTemplate;
+	private int batchSize;
+	private boolean migrationEnabled;
+	private boolean upsertEnabled;
+
     static {
     	logger = org.slf4j.LoggerFactory.getLogger(DBBasedCache.class);
     }
 
 	public DBBasedCache(Map<String, Object> configMap) {
+		super(configMap);
+		batchSize = Integer.parseInt((String)configMap.get("batch-size"));
+		migrationEnabled = Boolean.parseBoolean((String)configMap.get("migration.enabled"));
 		logger.info("Database based cache successfully instantiated");
 	}
 
+	@PostConstruct
+	private void init() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		if (migrationEnabled) {
+			migrate();
+		}
+		upsertEnabled = hasUniqueIndexOnKeys();
+		if (!upsertEnabled) {
+			logger.warn(
+				"The unique index on the keys of the cache items is missing, the upsert is disabled: run the script {} or enable the migration",
+				MIGRATION_SCRIPT
+			);
+		}
+	}
+
+	//The upsert requires the unique index on the keys, that the schema update can't add to a table containing
+	//duplicated keys: the script removes them (the most recent item is kept) and adds the index
+	private void migrate() {
+		try {
+			new ResourceDatabasePopulator(new ClassPathResource(MIGRATION_SCRIPT)).execute(dataSource);
+			logger.info("Migration script {} executed", MIGRATION_SCRIPT);
+		} catch (DataAccessException exc) {
+			logger.error("Unable to execute the migration script {}: {}", MIGRATION_SCRIPT, exc.getMessage());
+		}
+	}
+
+	private boolean hasUniqueIndexOnKeys() {
+		try {
+			return jdbcTemplate.queryForObject(UNIQUE_INDEX_QUERY, Integer.class) > 0;
+		} catch (DataAccessException exc) {
+			logger.error("Unable to check the unique index on the keys of the cache items: {}", exc.getMessage());
+			return false;
+		}
+	}
+
 	@Override
 	public void store(String key, Serializable object) {
+		try {
+			byte[] value = compress(utility.serialize(object));
+			if (upsertEnabled) {
+				jdbcTemplate.update(UPSERT_STATEMENT, key, value);
+			} else {
+				storeWithoutUpsert(key, value);
+			}
+		} catch (IOException exc) {
+			Throwables.rethrow(exc);
+		}
+		logger.info("Object with id '{}' stored in the physical cache", key);
+	}
+
+	private void storeWithoutUpsert(String key, byte[] value) {
 		Item cacheItem = repository.findByKey(key);
 		if (cacheItem == null) {
 			cacheItem = new Item();
 			cacheItem.setKey(key);
 		}
+		cacheItem.setValue(value);
+		repository.save(cacheItem);
+	}
+
+	@Override
+	public void storeAll(Map<String, ? extends Serializable> objects) {
+		List<Object[]> batchArgs = new ArrayList<>(objects.size());
 		try {
-			cacheItem.setValue(utility.serialize(object));
+			for (Map.Entry<String, ? extends Serializable> object : objects.entrySet()) {
+				batchArgs.add(new Object[] {object.getKey(), compress(utility.serialize(object.getValue()))});
+			}
 		} catch (IOException exc) {
 			Throwables.rethrow(exc);
 		}
-		repository.save(cacheItem);
-		logger.info("Object with id '{}' stored in the physical cache", key);
+		if (!upsertEnabled) {
+			for (Object[] args : batchArgs) {
+				storeWithoutUpsert((String)args[0], (byte[])args[1]);
+			}
+			logger.info("Objects with id {} stored in the physical cache", objects.keySet());
+			return;
+		}
+		for (int i = 0; i < batchArgs.size(); i += batchSize) {
+			jdbcTemplate.batchUpdate(UPSERT_STATEMENT, batchArgs.subList(i, Math.min(i + batchSize, batchArgs.size())));
+		}
+		logger.info("Objects with id {} stored in the physical cache", objects.keySet());
 	}
 
 	@Override
@@ -86,7 +183,7 @@ public class DBBasedCache extends SimpleCache.Abst {
 		Item cacheItem = repository.findByKey(key);
 		if (cacheItem != null) {
 			try {
-				T effectiveItem = utility.deserialize(cacheItem.getValue());
+				T effectiveItem = utility.deserialize(decompress(cacheItem.getValue()));
 				logger.info("Object with id '{}' loaded from physical cache: {}", key, effectiveItem);
 				return effectiveItem;
 			} catch (IOException | ClassNotFoundException exc) {
@@ -97,21 +194,46 @@ public class DBBasedCache extends SimpleCache.Abst {
 	}
 
 	@Override
-	@Transactional
+	public <T extends Serializable> Map<String, T> loadAll(Collection<String> keys) {
+		Map<String, T> objects = new LinkedHashMap<>();
+		if (keys.isEmpty()) {
+			return objects;
+		}
+		try {
+			for (Item cacheItem : repository.findByKeyIn(keys)) {
+				T effectiveItem = utility.deserialize(decompress(cacheItem.getValue()));
+				objects.put(cacheItem.getKey(), effectiveItem);
+			}
+		} catch (IOException | ClassNotFoundException exc) {
+			Throwables.rethrow(exc);
+		}
+		logger.info("Objects with id {} loaded from physical cache", objects.keySet());
+		return objects;
+	}
+
+	@Override
 	public void delete(String... keys) {
+		deleteAll(Arrays.asList(keys));
+	}
+
+	public void deleteAll(Collection<String> keys) {
+		List<Object[]> batchArgs = new ArrayList<>(keys.size());
 		for (String key : keys) {
-			repository.deleteByKey(key);
+			batchArgs.add(new Object[] {key});
+		}
+		for (int i = 0; i < batchArgs.size(); i += batchSize) {
+			jdbcTemplate.batchUpdate(DELETE_STATEMENT, batchArgs.subList(i, Math.min(i + batchSize, batchArgs.size())));
 		}
 	}
 
 	@Override
 	public void clear() {
-		repository.deleteAll();
+		repository.deleteAllInBatch();
 		logger.info("Physical cache cleaning done");
 	}
 
 	@Entity
-	@Table(name = "CacheItem")
+	@Table(name = "CacheItem", uniqueConstraints = @UniqueConstraint(name = "cache_item_key_unique", columnNames = "key"))
 	@NoArgsConstructor
 	@Getter
 	@Setter
@@ -135,7 +257,7 @@ public class DBBasedCache extends SimpleCache.Abst {
 
 			public Item findByKey(String key);
 
-			public void deleteByKey(String key);
+			public List<Item> findByKeyIn(Collection<String> keys);
 
 		}
 
@@ -0,0 +1,163 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The time budget of a request, passed down from the controller to the remote calls. The deadline of the
+ * calls in progress is also bound to the executing thread (see {@link #call(Callable)}) so that the HTTP
+ * clients can cap their timeouts to the remaining time and abort the requests when the deadline expires:
+ * the expiration tasks registered during a call are cancelled when the call completes.
+ */
+public class Deadline {
+	public final static Deadline NONE;
+	private final static ThreadLocal<Deadline> current;
+	private final static ThreadLocal<Collection<ScheduledFuture<?>>> expirationTasks;
+	private final static ScheduledThreadPoolExecutor timer;
+
+	private final long expiration;
+
+	static {
+		NONE = new Deadline(Long.MAX_VALUE);
+		current = new ThreadLocal<>();
+		expirationTasks = new ThreadLocal<>();
+		timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "Deadline timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.setRemoveOnCancelPolicy(true);
+	}
+
+	private Deadline(long expiration) {
+		this.expiration = expiration;
+	}
+
+	public static Deadline in(long timeout) {
+		return new Deadline(System.currentTimeMillis() + timeout);
+	}
+
+	public static Deadline current() {
+		Deadline deadline = current.get();
+		return deadline != null ? deadline : NONE;
+	}
+
+	public boolean isBounded() {
+		return this != NONE;
+	}
+
+	public boolean isExpired() {
+		return getRemainingTime() <= 0;
+	}
+
+	public long getRemainingTime() {
+		if (!isBounded()) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, expiration - System.currentTimeMillis());
+	}
+
+	public int capTimeout(int timeout) {
+		if (!isBounded()) {
+			return timeout;
+		}
+		//A zero timeout means no timeout for the HTTP clients
+		int remainingTime = (int)Math.max(1, Math.min(Integer.MAX_VALUE, getRemainingTime()));
+		return timeout > 0 ? Math.min(timeout, remainingTime) : remainingTime;
+	}
+
+	public <T> T call(Callable<T> callable) {
+		Deadline previousDeadline = current.get();
+		Collection<ScheduledFuture<?>> previousExpirationTasks = expirationTasks.get();
+		Collection<ScheduledFuture<?>> callExpirationTasks = new ArrayList<>();
+		current.set(this);
+		expirationTasks.set(callExpirationTasks);
+		try {
+			return callable.call();
+		} catch (Throwable exc) {
+			return Throwables.rethrow(exc);
+		} finally {
+			for (ScheduledFuture<?> expirationTask : callExpirationTasks) {
+				expirationTask.cancel(false);
+			}
+			if (previousDeadline != null) {
+				current.set(previousDeadline);
+				expirationTasks.set(previousExpirationTasks);
+			} else {
+				current.remove();
+				expirationTasks.remove();
+			}
+		}
+	}
+
+	//The task is cancelled when the call of this deadline in progress on the current thread completes, if any
+	public ScheduledFuture<?> onExpiration(Runnable task) {
+		if (!isBounded()) {
+			return null;
+		}
+		ScheduledFuture<?> expirationTask = timer.schedule(task, getRemainingTime(), TimeUnit.MILLISECONDS);
+		if (current.get() == this) {
+			expirationTasks.get().add(expirationTask);
+		}
+		return expirationTask;
+	}
+
+	//Returns a future completed with the value of the supplier if the deadline expires before the one passed as parameter
+	public <T> CompletableFuture<T> orElse(CompletableFuture<T> outputSupplier, Supplier<T> outputOnExpiration) {
+		if (!isBounded() || outputSupplier.isDone()) {
+			return outputSupplier;
+		}
+		CompletableFuture<T> output = new CompletableFuture<>();
+		ScheduledFuture<?> expirationTask = timer.schedule(() -> {
+			try {
+				output.complete(outputOnExpiration.get());
+			} catch (Throwable exc) {
+				output.completeExceptionally(exc);
+			}
+		}, getRemainingTime(), TimeUnit.MILLISECONDS);
+		outputSupplier.whenComplete((value, exc) -> {
+			expirationTask.cancel(false);
+			if (exc != null) {
+				output.completeExceptionally(exc);
+			} else {
+				output.complete(value);
+			}
+		});
+		return output;
+	}
+
+}
@@ -29,15 +29,19 @@
 package org.burningwave;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -48,12 +52,15 @@ public class FSBasedCache extends SimpleCache.Abst {
 	private Utility utility;
 
 	private String basePath;
+	private Executor loader;
 
     static {
     	logger = org.slf4j.LoggerFactory.getLogger(FSBasedCache.class);
     }
 
-	public FSBasedCache(Map<String, Object> configMap) {
+	public FSBasedCache(Map<String, Object> configMap, Executor loader) {
+		super(configMap);
+		this.loader = loader;
 		basePath = ((String)configMap.get("base-path")).replace("\\", "/");
 		File file = new File(basePath);
 		file.mkdirs();
@@ -63,11 +70,8 @@ public class FSBasedCache extends SimpleCache.Abst {
 
 	@Override
 	public void store(String key, Serializable object) {
-		try (
-			FileOutputStream fout = new FileOutputStream(basePath + "/" + Base64.getEncoder().encodeToString(key.getBytes(StandardCharsets.UTF_8)) + ".ser");
-			ObjectOutputStream oos = new ObjectOutputStream(fout)
-		) {
-			oos.writeObject(object);
+		try {
+			Files.write(new File(basePath + "/" + Base64.getEncoder().encodeToString(key.getBytes(StandardCharsets.UTF_8)) + ".ser").toPath(), compress(utility.serialize(object)));
 			logger.info("Object with id '{}' stored in the physical cache", key);
 		} catch (Throwable exc) {
 			Throwables.rethrow(exc);
@@ -75,20 +79,42 @@ public class FSBasedCache extends SimpleCache.Abst {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T extends Serializable> T  load(String key) {
-		try (FileInputStream fIS = new FileInputStream(basePath + "/" + Base64.getEncoder().encodeToString(key.getBytes(StandardCharsets.UTF_8)) + ".ser");
-			ObjectInputStream oIS = new ObjectInputStream(fIS)) {
-			T effectiveItem = (T) oIS.readObject();
+		try {
+			T effectiveItem = utility.deserialize(
+				decompress(Files.readAllBytes(new File(basePath + "/" + Base64.getEncoder().encodeToString(key.getBytes(StandardCharsets.UTF_8)) + ".ser").toPath()))
+			);
 			logger.info("Object with id '{}' loaded from physical cache: {}", key, effectiveItem);
 	        return effectiveItem;
-		} catch (FileNotFoundException exc) {
+		} catch (FileNotFoundException | NoSuchFileException exc) {
 			return null;
 		} catch (Throwable exc) {
 			return Throwables.rethrow(exc);
 		}
 	}
 
+	//The files are read in parallel on the bounded executor of the cache (not on the common pool, which is
+	//shared with the rest of the application)
+	@Override
+	public <T extends Serializable> Map<String, T> loadAll(Collection<String> keys) {
+		Map<String, CompletableFuture<T>> outputSuppliers = new LinkedHashMap<>();
+		for (String key : keys) {
+			outputSuppliers.put(key, CompletableFuture.supplyAsync(() -> this.<T>load(key), loader));
+		}
+		Map<String, T> objects = new HashMap<>();
+		for (Map.Entry<String, CompletableFuture<T>> outputSupplier : outputSuppliers.entrySet()) {
+			try {
+				T object = outputSupplier.getValue().join();
+				if (object != null) {
+					objects.put(outputSupplier.getKey(), object);
+				}
+			} catch (CompletionException exc) {
+				Throwables.rethrow(exc.getCause());
+			}
+		}
+		return objects;
+	}
+
 	@Override
 	public void clear() {
 		utility.delete(new File(basePath), false);
@@ -0,0 +1,301 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes the calls to the best of the equivalent hosts of an upstream, according to the exponentially
+ * weighted moving averages of their latency and error rate. The hosts whose circuit breaker is open are
+ * skipped and, once per probe interval, a call is routed to the least recently used of the other hosts
+ * so that their averages stay current. When hedging is enabled, a call not completed within the hedging
+ * delay is duplicated on the second best host and the first successful response is used (both the calls
+ * are then executed on the hedging executor of the upstream). The calls are not hedged when the remaining
+ * time of the deadline doesn't exceed the hedging delay or when the quota of the upstream has no permit
+ * available for the duplicated call.
+ */
+public class HostSelector {
+	private final static org.slf4j.Logger logger;
+
+	private final String name;
+	private final List<Host> hosts;
+	private final CircuitBreakers circuitBreakers;
+	private final Bulkheads bulkheads;
+	private final UpstreamScheduler.Upstream upstream;
+	private final double smoothingFactor;
+	private final double errorPenalty;
+	private final long probeInterval;
+	private final boolean hedgingEnabled;
+	private final long hedgingDelay;
+	private long lastProbeTime;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(HostSelector.class);
+    }
+
+	public HostSelector(String name, Collection<String> hosts, CircuitBreakers circuitBreakers, Bulkheads bulkheads, UpstreamScheduler.Upstream upstream, Map<String, Object> configMap) {
+		this.name = name;
+		this.hosts = new ArrayList<>();
+		for (String host : hosts) {
+			this.hosts.add(new Host(host));
+		}
+		this.circuitBreakers = circuitBreakers;
+		this.bulkheads = bulkheads;
+		this.upstream = upstream;
+		smoothingFactor = Double.parseDouble((String)configMap.get("smoothing-factor"));
+		errorPenalty = Double.parseDouble((String)configMap.get("error-penalty"));
+		probeInterval = Long.parseLong((String)configMap.get("probe-interval"));
+		hedgingEnabled = Boolean.parseBoolean((String)configMap.get("hedging.enabled"));
+		hedgingDelay = Long.parseLong((String)configMap.get("hedging.delay"));
+		lastProbeTime = System.currentTimeMillis();
+		logger.info("Host selector {} successfully instantiated for hosts {}", name, hosts);
+	}
+
+	public String getPreferredHost() {
+		return getBestHosts()[0].name;
+	}
+
+	public <T> T execute(Call<T> call) {
+		Host[] bestHosts = select();
+		Deadline deadline = Deadline.current();
+		if (!hedgingEnabled || bestHosts[1] == null || deadline.getRemainingTime() <= hedgingDelay) {
+			return invoke(bestHosts[0], call);
+		}
+		return executeHedged(bestHosts[0], bestHosts[1], call, deadline);
+	}
+
+	private <T> T executeHedged(Host primaryHost, Host secondaryHost, Call<T> call, Deadline deadline) {
+		//The calls are executed on the hedging executor since the current thread may be one of the executor of the host
+		CompletableFuture<T> primaryOutputSupplier = CompletableFuture.supplyAsync(
+			() -> deadline.call(() -> invoke(primaryHost, call)),
+			bulkheads.get(name + "-hedging")
+		);
+		try {
+			return primaryOutputSupplier.get(hedgingDelay, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException exc) {
+			return Throwables.rethrow(exc.getCause());
+		} catch (TimeoutException exc) {
+			if (upstream != null && !upstream.tryAcquireAdditionalCall()) {
+				return join(primaryOutputSupplier);
+			}
+			secondaryHost.hedgedCount.incrementAndGet();
+			CompletableFuture<T> secondaryOutputSupplier = CompletableFuture.supplyAsync(
+				() -> deadline.call(() -> invoke(secondaryHost, call)),
+				bulkheads.get(name + "-hedging")
+			);
+			CompletableFuture<T> outputSupplier = new CompletableFuture<>();
+			AtomicInteger failures = new AtomicInteger();
+			for (CompletableFuture<T> attempt : Arrays.asList(primaryOutputSupplier, secondaryOutputSupplier)) {
+				attempt.whenComplete((output, attemptExc) -> {
+					if (attemptExc == null) {
+						outputSupplier.complete(output);
+					} else if (failures.incrementAndGet() == 2) {
+						outputSupplier.completeExceptionally(
+							attemptExc instanceof CompletionException && attemptExc.getCause() != null ? attemptExc.getCause() : attemptExc
+						);
+					}
+				});
+			}
+			return join(outputSupplier);
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	private <T> T join(CompletableFuture<T> outputSupplier) {
+		try {
+			return outputSupplier.get();
+		} catch (ExecutionException exc) {
+			return Throwables.rethrow(exc.getCause());
+		} catch (InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	private <T> T invoke(Host host, Call<T> call) {
+		long startTime = System.currentTimeMillis();
+		try {
+			T output = circuitBreakers.get(name + "@" + host.name).execute(() -> call.call(host.name));
+			host.record(System.currentTimeMillis() - startTime, false);
+			return output;
+		} catch (CircuitBreakers.OpenException exc) {
+			return Throwables.rethrow(exc);
+		} catch (Throwable exc) {
+			host.record(System.currentTimeMillis() - startTime, CircuitBreakers.isFailure(exc));
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	private Host[] select() {
+		Host[] bestHosts = getBestHosts();
+		if (bestHosts[1] == null) {
+			return bestHosts;
+		}
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			if (now - lastProbeTime < probeInterval) {
+				return bestHosts;
+			}
+			lastProbeTime = now;
+		}
+		Host probedHost = null;
+		for (Host host : hosts) {
+			if (host != bestHosts[0] && isAvailable(host) &&
+				(probedHost == null || host.lastUseTime.get() < probedHost.lastUseTime.get())
+			) {
+				probedHost = host;
+			}
+		}
+		if (probedHost == null) {
+			return bestHosts;
+		}
+		probedHost.probeCount.incrementAndGet();
+		return new Host[] {probedHost, bestHosts[0]};
+	}
+
+	//Returns the best host and the second best one (null if there is only one available host)
+	private Host[] getBestHosts() {
+		Host[] bestHosts = new Host[2];
+		for (Host host : hosts) {
+			if (!isAvailable(host)) {
+				continue;
+			}
+			if (bestHosts[0] == null || host.getScore() < bestHosts[0].getScore()) {
+				bestHosts[1] = bestHosts[0];
+				bestHosts[0] = host;
+			} else if (bestHosts[1] == null || host.getScore() < bestHosts[1].getScore()) {
+				bestHosts[1] = host;
+			}
+		}
+		//When all the circuits are open the first host is used and its circuit breaker will reject the call
+		if (bestHosts[0] == null) {
+			bestHosts[0] = hosts.get(0);
+		}
+		return bestHosts;
+	}
+
+	private boolean isAvailable(Host host) {
+		return circuitBreakers.get(name + "@" + host.name).getState() != CircuitBreakers.State.OPEN;
+	}
+
+	public Map<String, Stats> getStats() {
+		String preferredHost = getPreferredHost();
+		Map<String, Stats> allStats = new LinkedHashMap<>();
+		for (Host host : hosts) {
+			Stats stats = new Stats();
+			synchronized (host) {
+				stats.setAverageLatency(host.averageLatency);
+				stats.setErrorRate(host.errorRate);
+			}
+			stats.setPreferred(host.name.equals(preferredHost));
+			stats.setCallCount(host.callCount.get());
+			stats.setProbeCount(host.probeCount.get());
+			stats.setHedgedCount(host.hedgedCount.get());
+			stats.setCircuitBreakerState(circuitBreakers.get(name + "@" + host.name).getState());
+			allStats.put(name + "@" + host.name, stats);
+		}
+		return allStats;
+	}
+
+	private class Host {
+		private final String name;
+		private double averageLatency;
+		private double errorRate;
+		private boolean sampled;
+		private final AtomicLong lastUseTime;
+		private final AtomicLong callCount;
+		private final AtomicLong probeCount;
+		private final AtomicLong hedgedCount;
+
+		private Host(String name) {
+			this.name = name;
+			lastUseTime = new AtomicLong();
+			callCount = new AtomicLong();
+			probeCount = new AtomicLong();
+			hedgedCount = new AtomicLong();
+		}
+
+		private synchronized void record(long latency, boolean failed) {
+			lastUseTime.set(System.currentTimeMillis());
+			callCount.incrementAndGet();
+			if (!sampled) {
+				averageLatency = latency;
+				errorRate = failed ? 1 : 0;
+				sampled = true;
+				return;
+			}
+			averageLatency += smoothingFactor * (latency - averageLatency);
+			errorRate += smoothingFactor * ((failed ? 1 : 0) - errorRate);
+		}
+
+		//The error penalty is expressed in milliseconds and the hosts never called have the lowest score, so that they are tried first
+		private synchronized double getScore() {
+			return averageLatency + (errorPenalty * errorRate);
+		}
+
+	}
+
+	@FunctionalInterface
+	public static interface Call<T> {
+
+		public T call(String host) throws Throwable;
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private boolean preferred;
+		private double averageLatency;
+		private double errorRate;
+		private long callCount;
+		private long probeCount;
+		private long hedgedCount;
+		private CircuitBreakers.State circuitBreakerState;
+
+	}
+
+}
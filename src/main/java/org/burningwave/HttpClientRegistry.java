@@ -0,0 +1,189 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Registry of the pooled HTTP clients used to call the upstreams. Each client is configured by the entries
+ * prefixed with its name ('max-connections', 'max-connections-per-route', 'connect-timeout',
+ * 'connection-request-timeout', 'read-timeout', 'keep-alive', 'idle-timeout' and 'gzip'); the clients
+ * whose name is not configured take the configuration of their group or the default one. The connections are kept alive for the
+ * time indicated by the server, capped by the configured keep-alive, and the idle ones are evicted in
+ * background. The requests sent within a {@link Deadline} have their timeouts capped to the remaining
+ * time and are aborted when it expires.
+ */
+public class HttpClientRegistry {
+	private final static org.slf4j.Logger logger;
+
+	private Map<String, Object> configMap;
+	private Map<String, HttpClient> httpClients;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(HttpClientRegistry.class);
+    }
+
+	public HttpClientRegistry(Map<String, Object> configMap) {
+		this.configMap = configMap;
+		httpClients = new ConcurrentHashMap<>();
+	}
+
+	public RestTemplate getRestTemplate(String name) {
+		return httpClients.computeIfAbsent(name, this::create).restTemplate;
+	}
+
+	private HttpClient create(String name) {
+		String configurationName = Configurations.resolveName(configMap, name, "max-connections");
+		int maxConnections = getInt(configurationName, "max-connections");
+		int maxConnectionsPerRoute = getInt(configurationName, "max-connections-per-route");
+		long keepAlive = getInt(configurationName, "keep-alive");
+		long idleTimeout = getInt(configurationName, "idle-timeout");
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+			long keepAliveFromServer = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return keepAliveFromServer > 0 ? Math.min(keepAliveFromServer, keepAlive) : keepAlive;
+		};
+		RequestConfig requestConfig = RequestConfig.custom()
+			.setConnectTimeout(getInt(configurationName, "connect-timeout"))
+			.setConnectionRequestTimeout(getInt(configurationName, "connection-request-timeout"))
+			.setSocketTimeout(getInt(configurationName, "read-timeout"))
+			.build();
+		HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(requestConfig)
+			.setKeepAliveStrategy(keepAliveStrategy)
+			.evictExpiredConnections()
+			.evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+		//The content compression adds the 'Accept-Encoding: gzip,deflate' header and decompresses the responses
+		if (!Boolean.parseBoolean((String)configMap.get(configurationName + ".gzip"))) {
+			httpClientBuilder.disableContentCompression();
+		}
+		HttpClient httpClient = new HttpClient();
+		httpClient.connectionManager = connectionManager;
+		httpClient.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClientBuilder.build()) {
+			@Override
+			protected void postProcessHttpRequest(HttpUriRequest request) {
+				Deadline deadline = Deadline.current();
+				if (deadline.isBounded() && request instanceof HttpRequestBase) {
+					HttpRequestBase httpRequest = (HttpRequestBase)request;
+					httpRequest.setConfig(
+						RequestConfig.copy(requestConfig)
+							.setConnectTimeout(deadline.capTimeout(requestConfig.getConnectTimeout()))
+							.setConnectionRequestTimeout(deadline.capTimeout(requestConfig.getConnectionRequestTimeout()))
+							.setSocketTimeout(deadline.capTimeout(requestConfig.getSocketTimeout()))
+							.build()
+					);
+					//The abort task is cancelled when the call bound to the deadline completes
+					deadline.onExpiration(httpRequest::abort);
+				}
+			}
+		});
+		logger.info(
+			"HTTP client {} successfully instantiated with {} connections ({} per route)",
+			name, maxConnections, maxConnectionsPerRoute
+		);
+		return httpClient;
+	}
+
+	private int getInt(String configurationName, String key) {
+		return Integer.parseInt((String)configMap.get(configurationName + "." + key));
+	}
+
+	public Map<String, Stats> getStats() {
+		Map<String, Stats> allStats = new TreeMap<>();
+		for (Map.Entry<String, HttpClient> httpClient : httpClients.entrySet()) {
+			PoolingHttpClientConnectionManager connectionManager = httpClient.getValue().connectionManager;
+			Stats stats = new Stats();
+			stats.setTotal(PoolStats.of(connectionManager.getTotalStats()));
+			Map<String, PoolStats> routes = new LinkedHashMap<>();
+			for (HttpRoute route : connectionManager.getRoutes()) {
+				routes.put(route.getTargetHost().toURI(), PoolStats.of(connectionManager.getStats(route)));
+			}
+			stats.setRoutes(routes);
+			allStats.put(httpClient.getKey(), stats);
+		}
+		return allStats;
+	}
+
+	private static class HttpClient {
+		private PoolingHttpClientConnectionManager connectionManager;
+		private RestTemplate restTemplate;
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private PoolStats total;
+		private Map<String, PoolStats> routes;
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class PoolStats {
+
+		private int leased;
+		private int pending;
+		private int available;
+		private int max;
+
+		private static PoolStats of(org.apache.http.pool.PoolStats poolStats) {
+			PoolStats stats = new PoolStats();
+			stats.setLeased(poolStats.getLeased());
+			stats.setPending(poolStats.getPending());
+			stats.setAvailable(poolStats.getAvailable());
+			stats.setMax(poolStats.getMax());
+			return stats;
+		}
+
+	}
+
+}
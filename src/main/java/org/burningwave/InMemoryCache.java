@@ -0,0 +1,463 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache shared by the connectors. The total weight of the entries is kept under the
+ * configured maximum (in bytes) and the admission and eviction of the entries is driven by their access
+ * frequency (W-TinyLFU): new entries enter a small LRU window and, when they leave it, they are admitted
+ * in the main space only if they are accessed more frequently than the entry that should be evicted for
+ * making room to them. The reads don't take the lock: the accesses are recorded in a buffer (the ones
+ * exceeding its capacity are dropped) that is drained under the lock by the writes and, once it is half
+ * full, by the first read that acquires the lock without waiting.
+ */
+public class InMemoryCache {
+	private final static org.slf4j.Logger logger;
+
+	private final static int WINDOW = 0;
+	private final static int PROBATION = 1;
+	private final static int PROTECTED = 2;
+	private final static int REMOVED = -1;
+	private final static int READ_BUFFER_CAPACITY = 1024;
+
+	private final long maxWeight;
+	private final long windowMaxWeight;
+	private final long protectedMaxWeight;
+	private final Map<String, Node> data;
+	private final AccessQueue window;
+	private final AccessQueue probation;
+	private final AccessQueue protectedQueue;
+	private final FrequencySketch frequencySketch;
+	private final ReentrantLock lock;
+	private final Queue<Object> readBuffer;
+	private final AtomicInteger readBufferSize;
+	private final LongAdder hitCount;
+	private final LongAdder missCount;
+	private long weight;
+	private long evictionCount;
+	private long evictionWeight;
+	private long rejectionCount;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(InMemoryCache.class);
+    }
+
+	public InMemoryCache(Map<String, Object> configMap) {
+		this(Long.parseLong((String)configMap.get("max-weight")));
+	}
+
+	public InMemoryCache(long maxWeight) {
+		this.maxWeight = maxWeight;
+		this.windowMaxWeight = Math.max(1, maxWeight / 100);
+		this.protectedMaxWeight = (long)((maxWeight - windowMaxWeight) * 0.8);
+		this.data = new ConcurrentHashMap<>();
+		this.window = new AccessQueue();
+		this.probation = new AccessQueue();
+		this.protectedQueue = new AccessQueue();
+		this.frequencySketch = new FrequencySketch();
+		this.lock = new ReentrantLock();
+		this.readBuffer = new ConcurrentLinkedQueue<>();
+		this.readBufferSize = new AtomicInteger();
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+		logger.info("In memory cache successfully instantiated with a max weight of {} bytes", maxWeight);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key) {
+		Node node = data.get(key);
+		if (node == null) {
+			missCount.increment();
+			recordAccess(key);
+			return null;
+		}
+		hitCount.increment();
+		recordAccess(node);
+		return (T)node.value;
+	}
+
+	//A hit is recorded as the node, a miss as the key
+	private void recordAccess(Object access) {
+		if (readBufferSize.incrementAndGet() > READ_BUFFER_CAPACITY) {
+			readBufferSize.decrementAndGet();
+		} else {
+			readBuffer.offer(access);
+		}
+		if (readBufferSize.get() >= READ_BUFFER_CAPACITY / 2 && lock.tryLock()) {
+			try {
+				drainReadBuffer();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void drainReadBuffer() {
+		Object access;
+		for (int i = 0; i < READ_BUFFER_CAPACITY && (access = readBuffer.poll()) != null; i++) {
+			readBufferSize.decrementAndGet();
+			if (access instanceof Node) {
+				Node node = (Node)access;
+				frequencySketch.increment(node.key);
+				if (node.queue != REMOVED) {
+					onAccess(node);
+				}
+			} else {
+				frequencySketch.increment((String)access);
+			}
+		}
+	}
+
+	public void put(String key, Object value) {
+		put(key, value, estimateWeight(key));
+	}
+
+	public void put(String key, Object value, long weight) {
+		lock.lock();
+		try {
+			doPut(key, value, weight);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void doPut(String key, Object value, long weight) {
+		drainReadBuffer();
+		Node node = data.get(key);
+		if (node != null) {
+			this.weight += weight - node.weight;
+			if (node.queue == PROTECTED) {
+				protectedQueue.weight += weight - node.weight;
+			} else if (node.queue == WINDOW) {
+				window.weight += weight - node.weight;
+			} else {
+				probation.weight += weight - node.weight;
+			}
+			node.value = value;
+			node.weight = weight;
+			onAccess(node);
+		} else {
+			if (weight > maxWeight) {
+				++rejectionCount;
+				return;
+			}
+			frequencySketch.ensureCapacity(data.size() + 1);
+			node = new Node(key, value, weight);
+			data.put(key, node);
+			window.addFirst(node);
+			this.weight += weight;
+		}
+		evict();
+	}
+
+	public void remove(String key) {
+		lock.lock();
+		try {
+			drainReadBuffer();
+			Node node = data.remove(key);
+			if (node != null) {
+				unlink(node);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		clear(key -> true);
+	}
+
+	//Removes only the entries whose key matches the filter (e.g. the ones of a connector)
+	public void clear(Predicate<String> keyFilter) {
+		lock.lock();
+		try {
+			drainReadBuffer();
+			Iterator<Node> nodes = data.values().iterator();
+			while (nodes.hasNext()) {
+				Node node = nodes.next();
+				if (keyFilter.test(node.key)) {
+					nodes.remove();
+					unlink(node);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public Stats getStats() {
+		Stats stats = new Stats();
+		stats.setHitCount(hitCount.sum());
+		stats.setMissCount(missCount.sum());
+		lock.lock();
+		try {
+			stats.setSize(data.size());
+			stats.setWeight(weight);
+			stats.setMaxWeight(maxWeight);
+			stats.setEvictionCount(evictionCount);
+			stats.setEvictionWeight(evictionWeight);
+			stats.setRejectionCount(rejectionCount);
+		} finally {
+			lock.unlock();
+		}
+		return stats;
+	}
+
+	private void unlink(Node node) {
+		queueOf(node).remove(node);
+		node.queue = REMOVED;
+		weight -= node.weight;
+	}
+
+	private void onAccess(Node node) {
+		if (node.queue == WINDOW) {
+			window.moveToFirst(node);
+		} else if (node.queue == PROBATION) {
+			probation.remove(node);
+			node.queue = PROTECTED;
+			protectedQueue.addFirst(node);
+			while (protectedQueue.weight > protectedMaxWeight && protectedQueue.last != node) {
+				Node demoted = protectedQueue.removeLast();
+				demoted.queue = PROBATION;
+				probation.addFirst(demoted);
+			}
+		} else {
+			protectedQueue.moveToFirst(node);
+		}
+	}
+
+	private void evict() {
+		Node candidate = null;
+		while (window.weight > windowMaxWeight && window.last != null) {
+			candidate = window.removeLast();
+			candidate.queue = PROBATION;
+			probation.addFirst(candidate);
+		}
+		while (weight > maxWeight) {
+			Node victim = probation.last;
+			if (victim == null) {
+				victim = protectedQueue.last != null ? protectedQueue.last : window.last;
+			} else if (candidate != null && candidate != victim &&
+				frequencySketch.frequency(candidate.key) <= frequencySketch.frequency(victim.key)
+			) {
+				victim = candidate;
+			}
+			if (victim == null) {
+				break;
+			}
+			if (victim == candidate) {
+				candidate = null;
+			}
+			data.remove(victim.key);
+			unlink(victim);
+			++evictionCount;
+			evictionWeight += victim.weight;
+		}
+	}
+
+	private AccessQueue queueOf(Node node) {
+		return node.queue == WINDOW ? window : node.queue == PROBATION ? probation : protectedQueue;
+	}
+
+	private long estimateWeight(String key) {
+		return 256 + (key.length() * 2);
+	}
+
+	private static class Node {
+		private final String key;
+		private volatile Object value;
+		private long weight;
+		private int queue;
+		private Node previous;
+		private Node next;
+
+		private Node(String key, Object value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.queue = WINDOW;
+		}
+	}
+
+	private static class AccessQueue {
+		private Node first;
+		private Node last;
+		private long weight;
+
+		private void addFirst(Node node) {
+			node.previous = null;
+			node.next = first;
+			if (first != null) {
+				first.previous = node;
+			} else {
+				last = node;
+			}
+			first = node;
+			weight += node.weight;
+		}
+
+		private void remove(Node node) {
+			if (node.previous != null) {
+				node.previous.next = node.next;
+			} else {
+				first = node.next;
+			}
+			if (node.next != null) {
+				node.next.previous = node.previous;
+			} else {
+				last = node.previous;
+			}
+			node.previous = null;
+			node.next = null;
+			weight -= node.weight;
+		}
+
+		private Node removeLast() {
+			Node node = last;
+			remove(node);
+			return node;
+		}
+
+		private void moveToFirst(Node node) {
+			if (first != node) {
+				remove(node);
+				addFirst(node);
+			}
+		}
+	}
+
+	//Count-min sketch with 4 rows of 4 bit counters halved periodically so that old accesses fade away
+	private static class FrequencySketch {
+		private static final long[] SEEDS = {
+			0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+		};
+		private long[] table;
+		private int tableMask;
+		private int sampleSize;
+		private int additions;
+
+		private FrequencySketch() {
+			ensureCapacity(1024);
+		}
+
+		//The counters are carried over halved: the indexes in the grown table differ from the old ones only in the
+		//new high bits, so each counter is copied in all the slots that take its place
+		private void ensureCapacity(int maximumSize) {
+			int size = Math.max(1024, Integer.highestOneBit(Math.max(1, maximumSize - 1)) << 1);
+			if (table != null && table.length >= size) {
+				return;
+			}
+			long[] newTable = new long[size];
+			if (table != null) {
+				for (int i = 0; i < size; i++) {
+					newTable[i] = (table[i & tableMask] >>> 1) & 0x7777777777777777L;
+				}
+				additions >>>= 1;
+			}
+			table = newTable;
+			tableMask = size - 1;
+			sampleSize = 10 * size;
+		}
+
+		private int frequency(String key) {
+			int hash = spread(key.hashCode());
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = (((hash >>> (i << 3)) & 3) << 2) + (i << 4);
+				frequency = Math.min(frequency, (int)((table[index] >>> offset) & 0xfL));
+			}
+			return frequency;
+		}
+
+		private void increment(String key) {
+			int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = (((hash >>> (i << 3)) & 3) << 2) + (i << 4);
+				long mask = 0xfL << offset;
+				if ((table[index] & mask) != mask) {
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+			if (added && ++additions == sampleSize) {
+				reset();
+			}
+		}
+
+		private void reset() {
+			for (int i = 0; i < table.length; i++) {
+				table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+			}
+			additions >>>= 1;
+		}
+
+		private int indexOf(int hash, int row) {
+			long value = (hash + SEEDS[row]) * SEEDS[row];
+			value += value >>> 32;
+			return ((int)value) & tableMask;
+		}
+
+		private int spread(int hash) {
+			hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+			hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+			return (hash >>> 16) ^ hash;
+		}
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private int size;
+		private long weight;
+		private long maxWeight;
+		private long hitCount;
+		private long missCount;
+		private long evictionCount;
+		private long evictionWeight;
+		private long rejectionCount;
+
+	}
+
+}
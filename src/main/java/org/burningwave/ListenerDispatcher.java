@@ -0,0 +1,177 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the change notifications of the caches to their listeners on a dedicated bounded executor.
+ * While a notification for a key is waiting to be delivered to a listener, the next notifications for
+ * the same key and listener are merged into it (the listener receives the first old value and the last
+ * new value). When the queue is full the notification is either discarded or delivered in the calling
+ * thread, according to the configured backpressure policy.
+ */
+public class ListenerDispatcher {
+	private final static org.slf4j.Logger logger;
+
+	private ThreadPoolExecutor executor;
+	private boolean callerRunsWhenFull;
+	private Map<SimpleCache.Listener, Map<String, Notification>> pendingNotifications;
+	private AtomicLong dispatchedCount;
+	private AtomicLong coalescedCount;
+	private AtomicLong rejectedCount;
+	private AtomicLong failedCount;
+	private AtomicLong totalLatency;
+	private AtomicLong maxLatency;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(ListenerDispatcher.class);
+    }
+
+	public ListenerDispatcher(ThreadPoolExecutor executor, Map<String, Object> configMap) {
+		this.executor = executor;
+		String backpressurePolicy = ((String)configMap.get("backpressure-policy")).trim();
+		if ("caller-runs".equalsIgnoreCase(backpressurePolicy)) {
+			callerRunsWhenFull = true;
+		} else if (!"discard".equalsIgnoreCase(backpressurePolicy)) {
+			throw new IllegalArgumentException("Unsupported backpressure policy: " + backpressurePolicy);
+		}
+		pendingNotifications = new ConcurrentHashMap<>();
+		dispatchedCount = new AtomicLong();
+		coalescedCount = new AtomicLong();
+		rejectedCount = new AtomicLong();
+		failedCount = new AtomicLong();
+		totalLatency = new AtomicLong();
+		maxLatency = new AtomicLong();
+		logger.info("Cache listener dispatcher successfully instantiated with {} threads", executor.getMaximumPoolSize());
+	}
+
+	public <T extends Serializable> void dispatch(SimpleCache.Listener listener, String key, T newValue, T oldValue) {
+		Map<String, Notification> pendingNotificationsForListener =
+			pendingNotifications.computeIfAbsent(listener, lst -> new ConcurrentHashMap<>());
+		Notification notification = new Notification(listener, key, newValue, oldValue);
+		Notification pendingNotification = pendingNotificationsForListener.compute(key, (k, current) -> {
+			if (current == null) {
+				return notification;
+			}
+			current.newValue = newValue;
+			return current;
+		});
+		if (pendingNotification != notification) {
+			coalescedCount.incrementAndGet();
+			return;
+		}
+		Runnable deliverer = () -> deliver(pendingNotificationsForListener, notification);
+		try {
+			executor.execute(deliverer);
+		} catch (RejectedExecutionException exc) {
+			rejectedCount.incrementAndGet();
+			if (callerRunsWhenFull) {
+				deliverer.run();
+			} else {
+				pendingNotificationsForListener.remove(key, notification);
+				logger.warn("Notification of the change of {} to {} discarded: the queue is full", key, listener);
+			}
+		}
+	}
+
+	private void deliver(Map<String, Notification> pendingNotificationsForListener, Notification notification) {
+		//After the removal the next notifications for the same key will be enqueued again
+		pendingNotificationsForListener.remove(notification.key, notification);
+		long latency = System.currentTimeMillis() - notification.creationTime;
+		totalLatency.addAndGet(latency);
+		maxLatency.accumulateAndGet(latency, Math::max);
+		dispatchedCount.incrementAndGet();
+		try {
+			notification.listener.processChangeNotification(notification.key, notification.newValue, notification.oldValue);
+		} catch (Throwable exc) {
+			failedCount.incrementAndGet();
+			logger.error(
+				"Exception occurred while notifying the storing of {} - {} to {}",
+				notification.key, notification.newValue, notification.listener, exc
+			);
+		}
+	}
+
+	public Stats getStats() {
+		Stats stats = new Stats();
+		stats.setQueueDepth(executor.getQueue().size());
+		stats.setActiveCount(executor.getActiveCount());
+		stats.setPendingCount(pendingNotifications.values().stream().mapToInt(Map::size).sum());
+		long dispatched = dispatchedCount.get();
+		stats.setDispatchedCount(dispatched);
+		stats.setCoalescedCount(coalescedCount.get());
+		stats.setRejectedCount(rejectedCount.get());
+		stats.setFailedCount(failedCount.get());
+		stats.setAverageLatency(dispatched > 0 ? totalLatency.get() / dispatched : 0);
+		stats.setMaxLatency(maxLatency.get());
+		return stats;
+	}
+
+	private static class Notification {
+		private final SimpleCache.Listener listener;
+		private final String key;
+		private final Serializable oldValue;
+		private final long creationTime;
+		private volatile Serializable newValue;
+
+		private Notification(SimpleCache.Listener listener, String key, Serializable newValue, Serializable oldValue) {
+			this.listener = listener;
+			this.key = key;
+			this.newValue = newValue;
+			this.oldValue = oldValue;
+			this.creationTime = System.currentTimeMillis();
+		}
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private int queueDepth;
+		private int activeCount;
+		private int pendingCount;
+		private long dispatchedCount;
+		private long coalescedCount;
+		private long rejectedCount;
+		private long failedCount;
+		private long averageLatency;
+		private long maxLatency;
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Executes the operations in mutual exclusion on an id through {@link ReentrantLock}s instead of
+ * monitors, so that a virtual thread that blocks while holding the lock doesn't pin its carrier
+ * thread. The lock of an id is discarded when no thread is using it anymore. The threads that have a
+ * {@link Deadline} wait for the lock at most until its expiration.
+ */
+public class Locks {
+	private final static Map<String, Mutex> mutexes;
+
+	static {
+		mutexes = new ConcurrentHashMap<>();
+	}
+
+	public static <T> T execute(String id, ThrowingSupplier<T> executable) {
+		return execute(id, Deadline.NONE, executable, null);
+	}
+
+	public static <T> T execute(String id, Deadline deadline, ThrowingSupplier<T> executable, Supplier<T> outputOnExpiration) {
+		Mutex mutex = mutexes.compute(id, (key, current) -> {
+			Mutex mtx = current != null ? current : new Mutex();
+			mtx.users++;
+			return mtx;
+		});
+		try {
+			if (!deadline.isBounded()) {
+				mutex.lock.lock();
+			} else if (!mutex.lock.tryLock(deadline.getRemainingTime(), TimeUnit.MILLISECONDS)) {
+				return outputOnExpiration.get();
+			}
+			try {
+				return executable.get();
+			} finally {
+				mutex.lock.unlock();
+			}
+		} catch (Throwable exc) {
+			return Throwables.rethrow(exc);
+		} finally {
+			mutexes.computeIfPresent(id, (key, current) -> --current.users == 0 ? null : current);
+		}
+	}
+
+	private static class Mutex {
+		private final ReentrantLock lock = new ReentrantLock();
+		//Guarded by the map: it is only read and written inside compute and computeIfPresent
+		private int users;
+	}
+
+	@FunctionalInterface
+	public static interface ThrowingSupplier<T> {
+
+		public T get() throws Throwable;
+
+	}
+
+}
@@ -0,0 +1,418 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * File system based cache that appends every change to memory mapped segment files instead of writing a
+ * file for each key. The position of the last value of each key is kept in an in-memory index that is
+ * rebuilt by scanning the segments at startup, so loads are plain reads from the mapped memory.
+ * The space occupied by the superseded records is reclaimed by a background compaction. The segments are
+ * closed and deleted under the write lock of the segments, so that no load is reading from them, and
+ * the changes are forced to the storage before a store or a delete returns and before a compacted
+ * segment is deleted.
+ * <p>
+ * Record layout: length (int) | CRC32 of the following length bytes (int) | type (byte) | key length (int) |
+ * key | value
+ */
+public class LogStructuredFSBasedCache extends SimpleCache.Abst {
+	private final static org.slf4j.Logger logger;
+	private final static Pattern segmentFileNamePattern;
+	private final static int HEADER_SIZE = 8;
+	private final static byte PUT = 1;
+	private final static byte DELETE = 2;
+
+	@Autowired
+	private Utility utility;
+
+	private File directory;
+	private int segmentSize;
+	private double compactionThreshold;
+	private ConcurrentSkipListMap<Long, Segment> segments;
+	private Map<String, Location> index;
+	private Segment activeSegment;
+	private ReadWriteLock segmentsLock;
+	private ScheduledExecutorService compactor;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(LogStructuredFSBasedCache.class);
+    	segmentFileNamePattern = Pattern.compile("segment-(\\d+)\\.log");
+    }
+
+	public LogStructuredFSBasedCache(Map<String, Object> configMap) throws IOException {
+		super(configMap);
+		directory = new File(((String)configMap.get("base-path")).replace("\\", "/"));
+		directory.mkdirs();
+		segmentSize = Integer.parseInt((String)configMap.get("segment.size"));
+		compactionThreshold = Double.parseDouble((String)configMap.get("compaction.threshold"));
+		segments = new ConcurrentSkipListMap<>();
+		index = new ConcurrentHashMap<>();
+		segmentsLock = new ReentrantReadWriteLock();
+		loadSegments();
+		long compactionInterval = Long.parseLong((String)configMap.get("compaction.interval"));
+		compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Log structured cache compactor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		compactor.scheduleWithFixedDelay(this::compact, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS);
+		logger.info(
+			"Log structured file system based cache successfully installed to path {}: {} segments, {} keys",
+			directory.getAbsolutePath(), segments.size(), index.size()
+		);
+	}
+
+	@Override
+	public void store(String key, Serializable object) {
+		try {
+			byte[] value = compress(utility.serialize(object));
+			synchronized (this) {
+				Location location = append(PUT, key.getBytes(StandardCharsets.UTF_8), value);
+				activeSegment.force();
+				release(index.put(key, location));
+			}
+			logger.info("Object with id '{}' stored in the physical cache", key);
+		} catch (Throwable exc) {
+			Throwables.rethrow(exc);
+		}
+	}
+
+	@Override
+	public <T extends Serializable> T load(String key) {
+		byte[] value;
+		segmentsLock.readLock().lock();
+		try {
+			Location location = index.get(key);
+			if (location == null) {
+				return null;
+			}
+			ByteBuffer record = location.segment.read(location.offset, location.length);
+			if (!isValid(record)) {
+				logger.error("Corrupted record for id '{}' in segment {}", key, location.segment.file.getName());
+				index.remove(key, location);
+				return null;
+			}
+			record.position(HEADER_SIZE + 5 + record.getInt(HEADER_SIZE + 1));
+			value = new byte[record.remaining()];
+			record.get(value);
+		} finally {
+			segmentsLock.readLock().unlock();
+		}
+		try {
+			T effectiveItem = utility.deserialize(decompress(value));
+			logger.info("Object with id '{}' loaded from physical cache: {}", key, effectiveItem);
+			return effectiveItem;
+		} catch (IOException | ClassNotFoundException exc) {
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	@Override
+	public void delete(String... keys) {
+		try {
+			synchronized (this) {
+				for (String key : keys) {
+					Location location = index.remove(key);
+					if (location != null) {
+						release(location);
+						append(DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+					}
+				}
+				activeSegment.force();
+			}
+		} catch (IOException exc) {
+			Throwables.rethrow(exc);
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		segmentsLock.writeLock().lock();
+		try {
+			index.clear();
+			long nextId = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+			for (Segment segment : segments.values()) {
+				segment.close();
+				utility.delete(segment.file);
+			}
+			segments.clear();
+			activeSegment = createSegment(nextId, segmentSize);
+			logger.info("Physical cache cleaning done");
+		} catch (IOException exc) {
+			Throwables.rethrow(exc);
+		} finally {
+			segmentsLock.writeLock().unlock();
+		}
+	}
+
+	private void loadSegments() throws IOException {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				Matcher matcher = segmentFileNamePattern.matcher(file.getName());
+				if (matcher.matches()) {
+					long id = Long.parseLong(matcher.group(1));
+					segments.put(id, new Segment(id, file, (int)file.length()));
+				}
+			}
+		}
+		for (Segment segment : segments.values()) {
+			replay(segment);
+		}
+		if (segments.isEmpty()) {
+			activeSegment = createSegment(1, segmentSize);
+		} else {
+			activeSegment = segments.lastEntry().getValue();
+		}
+	}
+
+	private void replay(Segment segment) {
+		int position = 0;
+		ByteBuffer record;
+		while ((record = segment.readRecord(position)) != null) {
+			if (!isValid(record)) {
+				logger.warn("Corrupted record found at position {} of segment {}: the remaining records will be ignored", position, segment.file.getName());
+				break;
+			}
+			String key = readKey(record);
+			Location location = new Location(segment, position, record.limit());
+			if (record.get(HEADER_SIZE) == PUT) {
+				segment.liveBytes += location.length;
+				release(index.put(key, location));
+			} else {
+				release(index.remove(key));
+			}
+			position += location.length;
+		}
+		segment.writePosition = position;
+	}
+
+	private Location append(byte type, byte[] key, byte[] value) throws IOException {
+		int length = 1 + 4 + key.length + value.length;
+		int recordSize = HEADER_SIZE + length;
+		if (activeSegment.writePosition + recordSize > activeSegment.capacity) {
+			activeSegment.force();
+			activeSegment = createSegment(activeSegment.id + 1, Math.max(segmentSize, recordSize + 4));
+		}
+		ByteBuffer record = ByteBuffer.allocate(recordSize);
+		record.putInt(length);
+		record.putInt(0);
+		record.put(type);
+		record.putInt(key.length);
+		record.put(key);
+		record.put(value);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), HEADER_SIZE, length);
+		record.putInt(4, (int)crc.getValue());
+		record.flip();
+		Location location = new Location(activeSegment, activeSegment.writePosition, recordSize);
+		activeSegment.write(location.offset, record);
+		activeSegment.writePosition += recordSize;
+		if (type == PUT) {
+			activeSegment.liveBytes += recordSize;
+		}
+		return location;
+	}
+
+	private void release(Location location) {
+		if (location != null) {
+			location.segment.liveBytes -= location.length;
+		}
+	}
+
+	private Segment createSegment(long id, int capacity) throws IOException {
+		Segment segment = new Segment(id, new File(directory, String.format("segment-%012d.log", id)), capacity);
+		segments.put(id, segment);
+		return segment;
+	}
+
+	private void compact() {
+		try {
+			Collection<Segment> candidates = new ArrayList<>();
+			for (Segment segment : segments.values()) {
+				if (segment != activeSegment && segment.writePosition > 0 &&
+					(1d - ((double)segment.liveBytes / segment.writePosition)) >= compactionThreshold
+				) {
+					candidates.add(segment);
+				}
+			}
+			for (Segment segment : candidates) {
+				compact(segment);
+			}
+		} catch (Throwable exc) {
+			logger.error("Exception occurred while compacting the physical cache", exc);
+		}
+	}
+
+	private synchronized void compact(Segment segment) throws IOException {
+		if (segments.get(segment.id) != segment) {
+			return;
+		}
+		boolean hasOlderSegments = segments.firstKey() < segment.id;
+		int position = 0;
+		ByteBuffer record;
+		while (position < segment.writePosition && (record = segment.readRecord(position)) != null && isValid(record)) {
+			String key = readKey(record);
+			int recordSize = record.limit();
+			Location location = index.get(key);
+			if (record.get(HEADER_SIZE) == PUT) {
+				if (location != null && location.segment == segment && location.offset == position) {
+					record.position(HEADER_SIZE + 5 + record.getInt(HEADER_SIZE + 1));
+					byte[] value = new byte[record.remaining()];
+					record.get(value);
+					index.put(key, append(PUT, key.getBytes(StandardCharsets.UTF_8), value));
+				}
+			} else if (location == null && hasOlderSegments) {
+				//The tombstone must survive until the older segments that could contain the key are compacted
+				append(DELETE, key.getBytes(StandardCharsets.UTF_8), new byte[0]);
+			}
+			position += recordSize;
+		}
+		//The relocated records must be on the storage before their source is deleted
+		activeSegment.force();
+		segmentsLock.writeLock().lock();
+		try {
+			segments.remove(segment.id);
+			segment.close();
+			utility.delete(segment.file);
+		} finally {
+			segmentsLock.writeLock().unlock();
+		}
+		logger.info("Segment {} compacted", segment.file.getName());
+	}
+
+	private boolean isValid(ByteBuffer record) {
+		CRC32 crc = new CRC32();
+		ByteBuffer content = record.duplicate();
+		content.position(HEADER_SIZE);
+		crc.update(content);
+		return (int)crc.getValue() == record.getInt(4);
+	}
+
+	private String readKey(ByteBuffer record) {
+		int keyLength = record.getInt(HEADER_SIZE + 1);
+		byte[] key = new byte[keyLength];
+		ByteBuffer keyBuffer = record.duplicate();
+		keyBuffer.position(HEADER_SIZE + 5);
+		keyBuffer.get(key);
+		return new String(key, StandardCharsets.UTF_8);
+	}
+
+	private static class Segment {
+		private final long id;
+		private final File file;
+		private final int capacity;
+		private final RandomAccessFile randomAccessFile;
+		private final MappedByteBuffer buffer;
+		private volatile int writePosition;
+		private volatile long liveBytes;
+
+		private Segment(long id, File file, int capacity) throws IOException {
+			this.id = id;
+			this.file = file;
+			this.capacity = capacity;
+			this.randomAccessFile = new RandomAccessFile(file, "rw");
+			this.buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		}
+
+		//Returns the record at the given position or null if there is no (complete) record
+		private ByteBuffer readRecord(int position) {
+			if (position + HEADER_SIZE > capacity) {
+				return null;
+			}
+			int length = buffer.getInt(position);
+			if (length <= 0 || position + HEADER_SIZE + length > capacity) {
+				return null;
+			}
+			return read(position, HEADER_SIZE + length);
+		}
+
+		private ByteBuffer read(int position, int length) {
+			ByteBuffer record = buffer.duplicate();
+			record.position(position);
+			record.limit(position + length);
+			return record.slice();
+		}
+
+		private void write(int position, ByteBuffer record) {
+			ByteBuffer target = buffer.duplicate();
+			target.position(position);
+			target.put(record);
+			if (target.remaining() >= 4) {
+				//End of log marker
+				target.putInt(target.position(), 0);
+			}
+		}
+
+		//The records are written through the mapping, so it's the mapped buffer that is forced
+		private void force() {
+			buffer.force();
+		}
+
+		private void close() throws IOException {
+			randomAccessFile.close();
+		}
+	}
+
+	private static class Location {
+		private final Segment segment;
+		private final int offset;
+		private final int length;
+
+		private Location(Segment segment, int offset, int length) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses with Deflate the payloads stored by a {@link SimpleCache.Abst} backend. The payloads smaller
+ * than the threshold are stored as they are, the compressed ones are prefixed by a marker byte (that
+ * can't be the first byte of a payload produced by the codecs) followed by the uncompressed length, so
+ * that compressed and uncompressed payloads can coexist in the same backend.
+ */
+public class PayloadCompressor {
+	private final static byte COMPRESSED = (byte)0xCF;
+	private final static int HEADER_SIZE = 5;
+
+	private boolean enabled;
+	private int level;
+	private int threshold;
+
+	public PayloadCompressor(Map<String, Object> configMap) {
+		enabled = Boolean.parseBoolean((String)configMap.get("compression.enabled"));
+		level = enabled ? Integer.parseInt((String)configMap.get("compression.level")) : Deflater.DEFAULT_COMPRESSION;
+		threshold = enabled ? Integer.parseInt((String)configMap.get("compression.threshold")) : Integer.MAX_VALUE;
+	}
+
+	public byte[] compress(byte[] payload) {
+		if (!enabled || payload.length < threshold) {
+			return payload;
+		}
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(payload);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(HEADER_SIZE + (payload.length / 2));
+			output.write(COMPRESSED);
+			output.write(ByteBuffer.allocate(4).putInt(payload.length).array(), 0, 4);
+			byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			byte[] compressedPayload = output.toByteArray();
+			return compressedPayload.length < payload.length ? compressedPayload : payload;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	public byte[] decompress(byte[] payload) throws IOException {
+		if (payload.length < HEADER_SIZE || payload[0] != COMPRESSED) {
+			return payload;
+		}
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(payload, HEADER_SIZE, payload.length - HEADER_SIZE);
+			byte[] uncompressedPayload = new byte[ByteBuffer.wrap(payload, 1, 4).getInt()];
+			int length = 0;
+			while (length < uncompressedPayload.length) {
+				int inflated = inflater.inflate(uncompressedPayload, length, uncompressedPayload.length - length);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += inflated;
+			}
+			if (length != uncompressedPayload.length) {
+				throw new IOException("Truncated compressed payload");
+			}
+			return uncompressedPayload;
+		} catch (DataFormatException exc) {
+			throw new IOException(exc);
+		} finally {
+			inflater.end();
+		}
+	}
+
+}
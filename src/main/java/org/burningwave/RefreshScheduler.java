@@ -0,0 +1,168 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the registered keys hot by refreshing them just before they expire. The keys are kept in a
+ * priority queue ordered by the time of their next refresh, that is the expiration time minus the lead
+ * time and a random jitter (so that the keys expiring together are spread over the jitter), and
+ * {@link #refreshExpiring()}, meant to be invoked through the 'scheduler.operations', hands the due
+ * ones to the {@link BackgroundRefresher}. A refresher must schedule its key again once done: the keys
+ * whose expiration is already past (e.g. because the refresh failed) are retried after the retry delay.
+ */
+public class RefreshScheduler {
+	private final static org.slf4j.Logger logger;
+
+	private BackgroundRefresher backgroundRefresher;
+	private long leadTime;
+	private long jitter;
+	private long retryDelay;
+	private int maxRefreshesPerRun;
+	private PriorityQueue<Entry> queue;
+	private Map<String, Entry> entries;
+	private long triggeredCount;
+	private long skippedCount;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(RefreshScheduler.class);
+    }
+
+	public RefreshScheduler(BackgroundRefresher backgroundRefresher, Map<String, Object> configMap) {
+		this.backgroundRefresher = backgroundRefresher;
+		leadTime = Long.parseLong((String)configMap.get("lead-time"));
+		jitter = Long.parseLong((String)configMap.get("jitter"));
+		retryDelay = Long.parseLong((String)configMap.get("retry-delay"));
+		maxRefreshesPerRun = Integer.parseInt((String)configMap.get("max-refreshes-per-run"));
+		queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.refreshTime));
+		entries = new HashMap<>();
+		logger.info("Refresh scheduler successfully instantiated with a lead time of {} and a jitter of {} milliseconds", leadTime, jitter);
+	}
+
+	public synchronized void schedule(String key, long expiration, Runnable refresher) {
+		long now = System.currentTimeMillis();
+		long refreshTime = expiration - leadTime - random(jitter);
+		if (refreshTime < now + retryDelay) {
+			refreshTime = now + retryDelay + random(jitter);
+		}
+		Entry entry = new Entry(key, refreshTime, refresher);
+		//The replaced entry is left in the queue and discarded when polled
+		entries.put(key, entry);
+		queue.add(entry);
+	}
+
+	public void refreshExpiring() {
+		long now = System.currentTimeMillis();
+		int refreshCount = 0;
+		while (refreshCount < maxRefreshesPerRun) {
+			Entry entry;
+			synchronized (this) {
+				entry = queue.peek();
+				if (entry == null || entry.refreshTime > now) {
+					break;
+				}
+				queue.poll();
+				if (entries.get(entry.key) != entry) {
+					continue;
+				}
+				entries.remove(entry.key);
+			}
+			++refreshCount;
+			if (backgroundRefresher.refresh(entry.key, entry.refresher)) {
+				synchronized (this) {
+					++triggeredCount;
+				}
+			} else {
+				//The refresh is already pending or has been rejected: in the latter case the key is retried later
+				synchronized (this) {
+					++skippedCount;
+					if (!entries.containsKey(entry.key)) {
+						Entry retryEntry = new Entry(entry.key, now + retryDelay + random(jitter), entry.refresher);
+						entries.put(entry.key, retryEntry);
+						queue.add(retryEntry);
+					}
+				}
+			}
+		}
+		if (refreshCount > 0) {
+			logger.info("{} keys sent to the background refresher", refreshCount);
+		}
+	}
+
+	private long random(long bound) {
+		return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+	}
+
+	public synchronized Stats getStats() {
+		Stats stats = new Stats();
+		stats.setScheduledKeys(entries.size());
+		Entry nextEntry = null;
+		for (Entry entry : entries.values()) {
+			if (nextEntry == null || entry.refreshTime < nextEntry.refreshTime) {
+				nextEntry = entry;
+			}
+		}
+		stats.setNextRefreshTime(nextEntry != null ? nextEntry.refreshTime : -1);
+		stats.setTriggeredCount(triggeredCount);
+		stats.setSkippedCount(skippedCount);
+		return stats;
+	}
+
+	private static class Entry {
+		private final String key;
+		private final long refreshTime;
+		private final Runnable refresher;
+
+		private Entry(String key, long refreshTime, Runnable refresher) {
+			this.key = key;
+			this.refreshTime = refreshTime;
+			this.refresher = refresher;
+		}
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private int scheduledKeys;
+		private long nextRefreshTime;
+		private long triggeredCount;
+		private long skippedCount;
+
+	}
+
+}
@@ -28,12 +28,18 @@
  */
 package org.burningwave;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Autowired;
+
 public interface SimpleCache {
 
 	public <T extends Serializable> void store(String key, T object);
@@ -42,6 +48,10 @@ public interface SimpleCache {
 
 	public <T extends Serializable> T load(String key);
 
+	public void storeAll(Map<String, ? extends Serializable> objects);
+
+	public <T extends Serializable> Map<String, T> loadAll(Collection<String> keys);
+
 	public void delete(String... keys);
 
 	public void clear();
@@ -64,11 +74,26 @@ public interface SimpleCache {
 	public static abstract class Abst implements SimpleCache {
 		private final static org.slf4j.Logger logger;
 		private Set<Abst.Listener> listeners;
+		private PayloadCompressor compressor;
+		@Autowired(required = false)
+		private ListenerDispatcher listenerDispatcher;
 
 	    static {
 	    	logger = org.slf4j.LoggerFactory.getLogger(Abst.class);
 	    }
 
+		protected Abst(Map<String, Object> configMap) {
+			compressor = new PayloadCompressor(configMap);
+		}
+
+		protected byte[] compress(byte[] payload) {
+			return compressor.compress(payload);
+		}
+
+		protected byte[] decompress(byte[] payload) throws IOException {
+			return compressor.decompress(payload);
+		}
+
 		@Override
 		public Set<Listener> getListeners() {
 			if (listeners == null) {
@@ -81,6 +106,25 @@ public interface SimpleCache {
 			return listeners;
 		}
 
+		@Override
+		public void storeAll(Map<String, ? extends Serializable> objects) {
+			for (Map.Entry<String, ? extends Serializable> object : objects.entrySet()) {
+				store(object.getKey(), object.getValue());
+			}
+		}
+
+		@Override
+		public <T extends Serializable> Map<String, T> loadAll(Collection<String> keys) {
+			Map<String, T> objects = new LinkedHashMap<>();
+			for (String key : keys) {
+				T object = load(key);
+				if (object != null) {
+					objects.put(key, object);
+				}
+			}
+			return objects;
+		}
+
 		@Override
 		public <T extends Serializable> void storeAndNotify(String key, T newValue, T oldValue) {
 			store(key, newValue);
@@ -90,9 +134,13 @@ public interface SimpleCache {
 		private <T extends Serializable> void notifyChange(String key, T newValue, T oldValue) {
 			for (Listener listener : getListeners()) {
 				try  {
-					CompletableFuture.runAsync(() ->
-						listener.processChangeNotification(key, newValue, oldValue)
-					);
+					if (listenerDispatcher != null) {
+						listenerDispatcher.dispatch(listener, key, newValue, oldValue);
+					} else {
+						CompletableFuture.runAsync(() ->
+							listener.processChangeNotification(key, newValue, oldValue)
+						);
+					}
 				} catch (Throwable exc){
 					logger.error("Exception occurred while notifying the storing of {} - {} to {}", key, newValue, listener, exc);
 				}
@@ -0,0 +1,299 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Schedules the calls to the upstreams according to their quotas. The quota of an upstream is limited by
+ * a ceiling of requests per second and, for the upstreams that send the 'X-RateLimit-*' headers (e.g.
+ * GitHub), by the remaining requests declared by the upstream. Under the ceiling every call waits for a
+ * permit up to the max wait (capped by the deadline). A reserve of the declared quota is kept for the
+ * popular keys, i.e. the ones accessed at least a minimum number of times (the counters are halved at every
+ * half-life and at most 'max-tracked-keys' keys are counted), and for the calls that have no cached value to
+ * fall back on: the other calls are deferred (i.e. rejected with {@link QuotaExceededException}, so that the
+ * caller keeps the cached value) until the quota is reset. The calls without a fallback are never deferred. The upstreams are configured like the
+ * {@link Bulkheads}.
+ */
+public class UpstreamScheduler {
+	private final static org.slf4j.Logger logger;
+
+	private Map<String, Object> configMap;
+	private Map<String, Upstream> upstreams;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(UpstreamScheduler.class);
+    }
+
+	public UpstreamScheduler(Map<String, Object> configMap) {
+		this.configMap = configMap;
+		upstreams = new ConcurrentHashMap<>();
+	}
+
+	public Upstream get(String name) {
+		return upstreams.computeIfAbsent(name, upstreamName -> {
+			String configurationName = Configurations.resolveName(configMap, upstreamName, "requests-per-second");
+			Upstream upstream = new Upstream(upstreamName, configurationName);
+			logger.info(
+				"Upstream {} scheduled with a ceiling of {} requests per second and a reserve of {} requests for the popular keys",
+				upstreamName, upstream.requestsPerSecond > 0 ? upstream.requestsPerSecond : "unlimited", upstream.reserve
+			);
+			return upstream;
+		});
+	}
+
+	private String getConfigValue(String configurationName, String key) {
+		return (String)configMap.get(configurationName + "." + key);
+	}
+
+	public Map<String, Stats> getStats() {
+		Map<String, Stats> allStats = new TreeMap<>();
+		for (Map.Entry<String, Upstream> upstream : upstreams.entrySet()) {
+			allStats.put(upstream.getKey(), upstream.getValue().getStats());
+		}
+		return allStats;
+	}
+
+	public class Upstream {
+		private final String name;
+		private final double requestsPerSecond;
+		private final double burst;
+		private final long reserve;
+		private final long popularKeyMinAccesses;
+		private final long maxWait;
+		private final long popularityHalfLife;
+		private final int maxTrackedKeys;
+		private final Map<String, AtomicLong> accesses;
+		private long lastPopularityDecayTime;
+		private double permits;
+		private long lastRefillTime;
+		private long limit;
+		private long remaining;
+		private long resetTime;
+		private final AtomicLong executedCount;
+		private final AtomicLong waitedCount;
+		private final AtomicLong deferredCount;
+
+		private Upstream(String name, String configurationName) {
+			this.name = name;
+			requestsPerSecond = Double.parseDouble(getConfigValue(configurationName, "requests-per-second"));
+			burst = Math.max(1, Double.parseDouble(getConfigValue(configurationName, "burst")));
+			reserve = Long.parseLong(getConfigValue(configurationName, "reserve"));
+			popularKeyMinAccesses = Long.parseLong(getConfigValue(configurationName, "popular-key-min-accesses"));
+			maxWait = Long.parseLong(getConfigValue(configurationName, "max-wait"));
+			popularityHalfLife = Long.parseLong(getConfigValue(configurationName, "popularity-half-life"));
+			maxTrackedKeys = Integer.parseInt(getConfigValue(configurationName, "max-tracked-keys"));
+			accesses = new ConcurrentHashMap<>();
+			lastPopularityDecayTime = System.currentTimeMillis();
+			permits = burst;
+			lastRefillTime = System.currentTimeMillis();
+			limit = -1;
+			remaining = -1;
+			executedCount = new AtomicLong();
+			waitedCount = new AtomicLong();
+			deferredCount = new AtomicLong();
+		}
+
+		public void recordAccess(String key) {
+			AtomicLong keyAccesses = accesses.get(key);
+			//Past the cap the new keys are not tracked until the decay of the counters removes some of the others
+			if (keyAccesses == null && accesses.size() < maxTrackedKeys) {
+				keyAccesses = accesses.computeIfAbsent(key, k -> new AtomicLong());
+			}
+			if (keyAccesses != null) {
+				keyAccesses.incrementAndGet();
+			}
+			long now = System.currentTimeMillis();
+			synchronized (accesses) {
+				if (now - lastPopularityDecayTime < popularityHalfLife) {
+					return;
+				}
+				lastPopularityDecayTime = now;
+			}
+			accesses.entrySet().removeIf(access -> access.getValue().updateAndGet(count -> count / 2) == 0);
+		}
+
+		public boolean isPopular(String key) {
+			AtomicLong keyAccesses = accesses.get(key);
+			return keyAccesses != null && keyAccesses.get() >= popularKeyMinAccesses;
+		}
+
+		//A call is deferrable if the caller has a cached value to fall back on
+		public <T> T execute(String key, boolean deferrable, Locks.ThrowingSupplier<T> call) {
+			acquire(key, deferrable);
+			executedCount.incrementAndGet();
+			try {
+				return call.get();
+			} catch (Throwable exc) {
+				return Throwables.rethrow(exc);
+			}
+		}
+
+		private void acquire(String key, boolean deferrable) {
+			boolean popular = isPopular(key);
+			long remainingTime = Deadline.current().getRemainingTime();
+			long maxWaitTime = deferrable ? Math.min(maxWait, remainingTime) : remainingTime;
+			long waitedTime = 0;
+			while (true) {
+				long waitTime = tryAcquire(popular || !deferrable);
+				if (waitTime == 0) {
+					if (waitedTime > 0) {
+						waitedCount.incrementAndGet();
+					}
+					return;
+				}
+				boolean quotaExhausted = waitTime < 0;
+				waitTime = Math.abs(waitTime);
+				if (deferrable && ((quotaExhausted && !popular) || waitedTime + waitTime > maxWaitTime)) {
+					deferredCount.incrementAndGet();
+					throw new QuotaExceededException(
+						"Call to " + name + " for " + key + " deferred: the quota will be available in " + waitTime + " milliseconds"
+					);
+				}
+				if (waitedTime + waitTime > maxWaitTime) {
+					//The calls without a fallback are left to the upstream once the declared quota can't be waited for
+					if (quotaExhausted) {
+						return;
+					}
+					Throwables.rethrow(new TimeoutException("Deadline expired while waiting for a permit to call " + name + " for " + key));
+				}
+				waitedTime += waitTime;
+				try {
+					Thread.sleep(waitTime);
+				} catch (InterruptedException exc) {
+					Thread.currentThread().interrupt();
+					Throwables.rethrow(exc);
+				}
+			}
+		}
+
+		//Acquires without waiting a permit for a call that duplicates one already executed (e.g. a hedged call)
+		public boolean tryAcquireAdditionalCall() {
+			if (tryAcquire(false) != 0) {
+				return false;
+			}
+			executedCount.incrementAndGet();
+			return true;
+		}
+
+		//Returns 0 if the call can be executed, otherwise the time after which a permit will be available,
+		//negative if the quota declared by the upstream is exhausted
+		private synchronized long tryAcquire(boolean priority) {
+			long now = System.currentTimeMillis();
+			if (remaining >= 0 && now >= resetTime) {
+				remaining = -1;
+			}
+			if (remaining >= 0 && remaining <= (priority ? 0 : reserve)) {
+				return -Math.max(1, resetTime - now);
+			}
+			if (requestsPerSecond > 0) {
+				permits = Math.min(burst, permits + ((now - lastRefillTime) * requestsPerSecond / 1000D));
+				lastRefillTime = now;
+				if (permits < 1) {
+					return Math.max(1, (long)Math.ceil((1 - permits) * 1000D / requestsPerSecond));
+				}
+				permits--;
+			}
+			if (remaining > 0) {
+				remaining--;
+			}
+			return 0;
+		}
+
+		//Updates the quota with the rate limit headers (if present) of a response
+		public synchronized void updateQuota(HttpHeaders headers) {
+			if (headers == null) {
+				return;
+			}
+			String remainingHeader = headers.getFirst("X-RateLimit-Remaining");
+			String resetHeader = headers.getFirst("X-RateLimit-Reset");
+			if (remainingHeader == null || resetHeader == null) {
+				return;
+			}
+			try {
+				remaining = Long.parseLong(remainingHeader.trim());
+				resetTime = Long.parseLong(resetHeader.trim()) * 1000;
+				String limitHeader = headers.getFirst("X-RateLimit-Limit");
+				if (limitHeader != null) {
+					limit = Long.parseLong(limitHeader.trim());
+				}
+			} catch (NumberFormatException exc) {
+				logger.warn("Unable to read the rate limit headers of {}: {}", name, exc.getMessage());
+			}
+		}
+
+		private synchronized Stats getStats() {
+			Stats stats = new Stats();
+			stats.setLimit(limit);
+			stats.setRemaining(remaining);
+			stats.setResetTime(resetTime);
+			stats.setAvailablePermits(requestsPerSecond > 0 ? permits : -1);
+			stats.setTrackedKeys(accesses.size());
+			stats.setExecutedCount(executedCount.get());
+			stats.setWaitedCount(waitedCount.get());
+			stats.setDeferredCount(deferredCount.get());
+			return stats;
+		}
+
+	}
+
+	public static class QuotaExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 4519630764718523051L;
+
+		public QuotaExceededException(String message) {
+			super(message);
+		}
+
+	}
+
+	@lombok.NoArgsConstructor
+	@lombok.Getter
+	@lombok.Setter
+	@lombok.ToString
+	public static class Stats {
+
+		private long limit;
+		private long remaining;
+		private long resetTime;
+		private double availablePermits;
+		private int trackedKeys;
+		private long executedCount;
+		private long waitedCount;
+		private long deferredCount;
+
+	}
+
+}
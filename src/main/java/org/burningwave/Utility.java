@@ -28,12 +28,8 @@
  */
 package org.burningwave;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Base64;
 import java.util.Calendar;
@@ -46,29 +42,30 @@ import java.util.function.Supplier;
 public class Utility {
 	private final static Random randomizer;
 
+	private Codec codec;
+
 	static {
 		randomizer = new Random();
 	}
 
+	public Utility() {
+		this(new Codec.JavaSerialization());
+	}
+
+	public Utility(Codec codec) {
+		this.codec = codec;
+	}
+
 	public byte[] serialize(Serializable object) throws IOException {
-		try (ByteArrayOutputStream bAOS = new ByteArrayOutputStream(); ObjectOutputStream oOS = new ObjectOutputStream(bAOS);) {
-	        oOS.writeObject(object);
-	        return bAOS.toByteArray();
-		}
+		return codec.encode(object);
 	}
 
 	public String toBase64(Serializable object) throws IOException {
 		return Base64.getEncoder().encodeToString(serialize(object));
 	}
 
-	@SuppressWarnings("unchecked")
 	public <T extends Serializable> T deserialize(byte[] objectAsBytes) throws IOException, ClassNotFoundException {
-		ByteArrayInputStream bAIS = new ByteArrayInputStream(objectAsBytes);
-        ObjectInputStream oIS = new ObjectInputStream(bAIS);
-        Object o  = oIS.readObject();
-        oIS.close();
-        bAIS.close();
-        return (T) o;
+		return codec.decode(objectAsBytes);
 	}
 
 	public <T extends Serializable> T fromBase64(String objectAsString) throws IOException, ClassNotFoundException {
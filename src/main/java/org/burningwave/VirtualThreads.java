@@ -0,0 +1,93 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads through reflection, so that the application can still be compiled for
+ * and run on the JDKs that don't support them: {@link #isSupported()} returns false on these JDKs.
+ */
+public class VirtualThreads {
+	private final static ThreadFactoryBuilder threadFactoryBuilder;
+
+	static {
+		ThreadFactoryBuilder builder = null;
+		try {
+			//The methods are retrieved from the public interface since the builder implementations are not accessible
+			Class<?> threadBuilderClass = Class.forName("java.lang.Thread$Builder");
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Method name = threadBuilderClass.getMethod("name", String.class, long.class);
+			Method factory = threadBuilderClass.getMethod("factory");
+			ThreadFactoryBuilder candidateBuilder = namePrefix ->
+				(ThreadFactory)factory.invoke(name.invoke(ofVirtual.invoke(null), namePrefix, 1L));
+			//On the JDKs where they are a preview feature the methods exist but fail if the preview is not enabled
+			candidateBuilder.build("Virtual threads probe ").newThread(() -> {});
+			builder = candidateBuilder;
+		} catch (Throwable exc) {
+			//Virtual threads are not supported by this JDK
+		}
+		threadFactoryBuilder = builder;
+	}
+
+	public static boolean isSupported() {
+		return threadFactoryBuilder != null;
+	}
+
+	public static ThreadFactory newThreadFactory(String namePrefix) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("Virtual threads are not supported by this JDK");
+		}
+		try {
+			return threadFactoryBuilder.build(namePrefix);
+		} catch (Throwable exc) {
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+		ThreadFactory threadFactory = newThreadFactory(namePrefix);
+		try {
+			return (ExecutorService)Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+		} catch (Throwable exc) {
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	@FunctionalInterface
+	private static interface ThreadFactoryBuilder {
+
+		public ThreadFactory build(String namePrefix) throws Throwable;
+
+	}
+
+}
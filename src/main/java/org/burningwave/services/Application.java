@@ -40,21 +40,35 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.xml.bind.JAXBException;
 
-import org.apache.http.client.HttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.coyote.ProtocolHandler;
+import org.burningwave.BackgroundRefresher;
 import org.burningwave.Badge;
+import org.burningwave.Bulkheads;
+import org.burningwave.CircuitBreakers;
+import org.burningwave.Codec;
 import org.burningwave.DBBasedCache;
 import org.burningwave.FSBasedCache;
+import org.burningwave.HttpClientRegistry;
+import org.burningwave.InMemoryCache;
+import org.burningwave.ListenerDispatcher;
+import org.burningwave.LogStructuredFSBasedCache;
+import org.burningwave.RefreshScheduler;
 import org.burningwave.SSL4Tomcat;
 import org.burningwave.SimpleCache;
+import org.burningwave.UpstreamScheduler;
 import org.burningwave.Utility;
+import org.burningwave.VirtualThreads;
 import org.burningwave.core.assembler.StaticComponentContainer;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
@@ -68,6 +82,7 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.ErrorPage;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
@@ -85,7 +100,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -116,7 +131,9 @@ public class Application extends SpringBootServletInitializer {
 	    	logger = org.slf4j.LoggerFactory.getLogger(Application.Environment.class);
 	    }
 
-		String schemeAndHostName;
+		volatile String schemeAndHostName;
+		private final ReentrantLock schemeAndHostNameLock = new ReentrantLock();
+		private final Condition schemeAndHostNameAvailable = schemeAndHostNameLock.newCondition();
 
 		@Bean("badge")
 		public Badge badge(
@@ -127,8 +144,10 @@ public class Application extends SpringBootServletInitializer {
 
 
 		@Bean("utility")
-		public Utility utility() {
-			return new Utility();
+		public Utility utility(
+			@Qualifier("cacheConfig") Map<String, String> cacheConfig
+		) {
+			return new Utility(Codec.forName(cacheConfig.get("codec")));
 		}
 
 
@@ -156,11 +175,135 @@ public class Application extends SpringBootServletInitializer {
 		@Bean("cache")
 		@ConditionalOnExpression(value = "'${cache.type}'.trim().equalsIgnoreCase('File system based')")
 		public SimpleCache cache(
+			@Qualifier("bulkheads") Bulkheads bulkheads,
+			@Qualifier("cacheConfig") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new FSBasedCache(configuration, bulkheads.get("cache-loader"));
+		}
+
+
+		@Bean("cache")
+		@ConditionalOnExpression(value = "'${cache.type}'.trim().equalsIgnoreCase('Log structured file system based')")
+		public SimpleCache logStructuredCache(
 			@Qualifier("cacheConfig") Map<String, String> configMap
+		) throws IOException {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new LogStructuredFSBasedCache(configuration);
+		}
+
+
+		@Bean("inMemoryCache.config")
+		@ConfigurationProperties("cache.in-memory")
+		public Map<String, String> inMemoryCacheConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("inMemoryCache")
+		public InMemoryCache inMemoryCache(
+			@Qualifier("inMemoryCache.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new InMemoryCache(configuration);
+		}
+
+
+		@Bean("bulkheads.config")
+		@ConfigurationProperties("executors")
+		public Map<String, String> bulkheadsConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("bulkheads")
+		public Bulkheads bulkheads(
+			@Qualifier("bulkheads.config") Map<String, String> configMap
 		) {
 			Map<String, Object> configuration = new HashMap<>();
 			configuration.putAll(configMap);
-			return new FSBasedCache(configuration);
+			return new Bulkheads(configuration);
+		}
+
+
+		@Bean("circuitBreakers.config")
+		@ConfigurationProperties("circuit-breakers")
+		public Map<String, String> circuitBreakersConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("circuitBreakers")
+		public CircuitBreakers circuitBreakers(
+			@Qualifier("circuitBreakers.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new CircuitBreakers(configuration);
+		}
+
+
+		@Bean("upstreamScheduler.config")
+		@ConfigurationProperties("upstream-quotas")
+		public Map<String, String> upstreamSchedulerConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("upstreamScheduler")
+		public UpstreamScheduler upstreamScheduler(
+			@Qualifier("upstreamScheduler.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new UpstreamScheduler(configuration);
+		}
+
+
+		@Bean("backgroundRefresher")
+		public BackgroundRefresher backgroundRefresher(
+			@Qualifier("bulkheads") Bulkheads bulkheads
+		) {
+			return new BackgroundRefresher(bulkheads.get("background-refresher"));
+		}
+
+
+		@Bean("refreshScheduler.config")
+		@ConfigurationProperties("refresh-scheduler")
+		public Map<String, String> refreshSchedulerConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("refreshScheduler")
+		public RefreshScheduler refreshScheduler(
+			@Qualifier("backgroundRefresher") BackgroundRefresher backgroundRefresher,
+			@Qualifier("refreshScheduler.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new RefreshScheduler(backgroundRefresher, configuration);
+		}
+
+
+		@Bean("listenerDispatcher.config")
+		@ConfigurationProperties("cache.listener-dispatcher")
+		public Map<String, String> listenerDispatcherConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("listenerDispatcher")
+		public ListenerDispatcher listenerDispatcher(
+			@Qualifier("bulkheads") Bulkheads bulkheads,
+			@Qualifier("listenerDispatcher.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new ListenerDispatcher(bulkheads.get("listeners"), configuration);
 		}
 
 
@@ -175,13 +318,19 @@ public class Application extends SpringBootServletInitializer {
 		@ConditionalOnProperty(prefix = "nexus-connector.group", name = "enabled", havingValue = "true")
 		public NexusConnector.Group nexusConnector(
 			@Qualifier("cache") SimpleCache cache,
-			@Qualifier("restTemplate") RestTemplate restTemplate,
+			@Qualifier("inMemoryCache") InMemoryCache inMemoryCache,
+			@Qualifier("backgroundRefresher") BackgroundRefresher backgroundRefresher,
+			@Qualifier("refreshScheduler") RefreshScheduler refreshScheduler,
+			@Qualifier("bulkheads") Bulkheads bulkheads,
+			@Qualifier("circuitBreakers") CircuitBreakers circuitBreakers,
+			@Qualifier("upstreamScheduler") UpstreamScheduler upstreamScheduler,
+			@Qualifier("httpClientRegistry") HttpClientRegistry httpClientRegistry,
 			@Qualifier("utility") Utility utility,
 			@Qualifier("nexusConnectorGroup.config") Map<String, String> configMap
 		) throws JAXBException, ParseException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException, IOException {
 			Map<String, Object> configuration = new HashMap<>();
 			configuration.putAll(configMap);
-			return new NexusConnector.Group(cache, restTemplate, utility, configuration);
+			return new NexusConnector.Group(cache, inMemoryCache, backgroundRefresher, refreshScheduler, bulkheads, circuitBreakers, upstreamScheduler, httpClientRegistry.getRestTemplate("nexus"), utility, configuration);
 		}
 
 
@@ -196,11 +345,41 @@ public class Application extends SpringBootServletInitializer {
 		@ConditionalOnProperty(prefix = "github-connector", name = "enabled", havingValue = "true")
 		GitHubConnector gitHubConnector(
 			@Qualifier("gitHubConnector.config") Map<String, String> configMap,
+			@Qualifier("httpClientRegistry") HttpClientRegistry httpClientRegistry,
+			@Qualifier("circuitBreakers") CircuitBreakers circuitBreakers,
+			@Qualifier("upstreamScheduler") UpstreamScheduler upstreamScheduler,
 			SimpleCache cache
 		) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException {
 			Map<String, Object> configuration = new HashMap<>();
 			configuration.putAll(configMap);
-			return new GitHubConnector(configuration);
+			return new GitHubConnector(httpClientRegistry.getRestTemplate("github"), circuitBreakers, upstreamScheduler, configuration);
+		}
+
+
+		@Bean("restController.config")
+		@ConfigurationProperties("rest-controller")
+		public Map<String, String> restControllerConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("cacheWarmUp.config")
+		@ConfigurationProperties("cache.warm-up")
+		public Map<String, String> cacheWarmUpConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("cacheWarmUp")
+		@ConditionalOnProperty(prefix = "cache.warm-up", name = "enabled", havingValue = "true")
+		public CacheWarmUp cacheWarmUp(
+			@Nullable @Qualifier("nexusConnectorGroup") NexusConnector.Group nexusConnectorGroup,
+			@Nullable @Qualifier("gitHubConnector") GitHubConnector gitHubConnector,
+			@Qualifier("cacheWarmUp.config") Map<String, String> configMap
+		) throws InterruptedException {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new CacheWarmUp(nexusConnectorGroup, gitHubConnector, configuration);
 		}
 
 
@@ -214,9 +393,10 @@ public class Application extends SpringBootServletInitializer {
 		@Bean("herokuConnector")
 		@ConditionalOnExpression(value = "'${heroku-connector.authorization.token}' != null && '${heroku-connector.remote.authorization.token}' != null")
 		public HerokuConnector herokuConnector(
-			@Qualifier("herokuConnector.config") Map<String, String> configMap
+			@Qualifier("herokuConnector.config") Map<String, String> configMap,
+			@Qualifier("httpClientRegistry") HttpClientRegistry httpClientRegistry
 		) {
-			return new HerokuConnector(configMap);
+			return new HerokuConnector(httpClientRegistry.getRestTemplate("heroku"), configMap);
 		}
 
 
@@ -230,21 +410,30 @@ public class Application extends SpringBootServletInitializer {
 		@Bean("applicationSelfConnector")
 		public SelfConnector applicationSelfConnector(
 			@Qualifier("cache") SimpleCache cache,
+			@Qualifier("bulkheads") Bulkheads bulkheads,
+			@Qualifier("httpClientRegistry") HttpClientRegistry httpClientRegistry,
 			@Qualifier("applicationSelfConnector.config") Map<String, String> configMap
 		) {
 			Map<String, Object> configuration = new HashMap<>();
 			configuration.putAll(configMap);
-			return new SelfConnector(this, cache, configuration);
+			return new SelfConnector(this, cache, bulkheads, httpClientRegistry.getRestTemplate("self"), configuration);
 		}
 
 
-		@Bean("restTemplate")
-		public RestTemplate restTemplate() {
-	        RestTemplate restTemplate = new RestTemplate();
-	        HttpClient httpClient = HttpClientBuilder.create().build();
-	        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
-	        restTemplate.setRequestFactory(requestFactory);
-	        return restTemplate;
+		@Bean("httpClientRegistry.config")
+		@ConfigurationProperties("http-clients")
+		public Map<String, String> httpClientRegistryConfig(){
+			return new LinkedHashMap<>();
+		}
+
+
+		@Bean("httpClientRegistry")
+		public HttpClientRegistry httpClientRegistry(
+			@Qualifier("httpClientRegistry.config") Map<String, String> configMap
+		) {
+			Map<String, Object> configuration = new HashMap<>();
+			configuration.putAll(configMap);
+			return new HttpClientRegistry(configuration);
 		}
 
 
@@ -270,7 +459,7 @@ public class Application extends SpringBootServletInitializer {
 			return new LinkedHashMap<>();
 		}
 
-
+
 		@Bean("scheduledOperations")
 		@ConditionalOnProperty(value = {"scheduler.enabled"}, havingValue = "true")
 		public Collection<ScheduledFuture<?>> scheduledOperations(
@@ -306,6 +495,22 @@ public class Application extends SpringBootServletInitializer {
 			return new WebMvcConfigurer(this);
 		}
 
+		@Bean("virtualThreadsContainerCustomizer")
+		@ConditionalOnProperty(value = {"executors.virtual-threads"}, havingValue = "true")
+		@ConditionalOnClass(TomcatServletWebServerFactory.class)
+		public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadsContainerCustomizer() {
+			return container -> {
+				if (!VirtualThreads.isSupported()) {
+					logger.warn("Virtual threads are not supported by this JDK: the requests will be handled by platform threads");
+					return;
+				}
+				TomcatProtocolHandlerCustomizer<ProtocolHandler> protocolHandlerCustomizer = protocolHandler ->
+					protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("Request handler "));
+				container.addProtocolHandlerCustomizers(protocolHandlerCustomizer);
+			};
+		}
+
+
 		@Bean("containerCustomizer")
 		public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> containerCustomizer() {
 			return container -> {
@@ -328,12 +533,7 @@ public class Application extends SpringBootServletInitializer {
 					public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
 						String applicationSchemeAndHostName = ServletUriComponentsBuilder.fromCurrentContextPath().build().toString();
 						if (applicationSchemeAndHostName != applicationEnvironment.schemeAndHostName) {
-							synchronized(applicationEnvironment) {
-								if (applicationSchemeAndHostName != applicationEnvironment.schemeAndHostName) {
-									applicationEnvironment.schemeAndHostName = applicationSchemeAndHostName;
-									applicationEnvironment.notifyAll();
-								}
-							}
+							applicationEnvironment.setSchemeAndHostName(applicationSchemeAndHostName);
 						}
 						return HandlerInterceptor.super.preHandle(request, response, handler);
 					}
@@ -345,11 +545,13 @@ public class Application extends SpringBootServletInitializer {
 		public static class SelfConnector {
 
 			final RestTemplate restTemplate;
+			final Executor executor;
 		    final HttpEntity<String> entity;
 		    final Supplier<String> getStatsTotalDownloadsUriComponentsBuilder;
 
-		    public SelfConnector(Application.Environment application, SimpleCache cache, Map<String, Object> configMap) {
-		    	restTemplate = new RestTemplate();
+		    public SelfConnector(Application.Environment application, SimpleCache cache, Bulkheads bulkheads, RestTemplate restTemplate, Map<String, Object> configMap) {
+		    	this.restTemplate = restTemplate;
+		    	executor = bulkheads.get("self-ping");
 		        entity = new HttpEntity<String>(new HttpHeaders());
 		        getStatsTotalDownloadsUriComponentsBuilder = () -> {
 		        	return application.getURL("/miscellaneous-services/stats/total-downloads?groupId=org.burningwave&artifactId=core");
@@ -359,13 +561,24 @@ public class Application extends SpringBootServletInitializer {
 		    public void ping() {
 				String url = getStatsTotalDownloadsUriComponentsBuilder.get();
 				if (url != null) {
-					restTemplate.exchange(
-						url,
-						HttpMethod.GET,
-						entity,
-						Long.class
-					);
-					org.slf4j.LoggerFactory.getLogger(SelfConnector.class).info("Ping to url '{}' done", url);
+					try {
+						executor.execute(() -> {
+							try {
+								restTemplate.exchange(
+									url,
+									HttpMethod.GET,
+									entity,
+									Long.class
+								);
+								org.slf4j.LoggerFactory.getLogger(SelfConnector.class).info("Ping to url '{}' done", url);
+							} catch (Throwable exc) {
+								org.slf4j.LoggerFactory.getLogger(SelfConnector.class).warn("Ping to url '{}' failed: {}", url, exc.getMessage());
+							}
+						});
+					} catch (RejectedExecutionException exc) {
+						//The previous ping is still running
+						org.slf4j.LoggerFactory.getLogger(SelfConnector.class).debug("Ping to url '{}' skipped: {}", url, exc.getMessage());
+					}
 				}
 			}
 		}
@@ -403,6 +616,31 @@ public class Application extends SpringBootServletInitializer {
 		public String getURL(String relativePath) {
 			return Optional.ofNullable(schemeAndHostName).map(url -> url + relativePath).orElseGet(() -> null);
 		}
+
+		//A lock is used instead of the monitor so that the waiting virtual threads don't pin their carrier threads
+		void setSchemeAndHostName(String schemeAndHostName) {
+			schemeAndHostNameLock.lock();
+			try {
+				if (schemeAndHostName != this.schemeAndHostName) {
+					this.schemeAndHostName = schemeAndHostName;
+					schemeAndHostNameAvailable.signalAll();
+				}
+			} finally {
+				schemeAndHostNameLock.unlock();
+			}
+		}
+
+		String awaitSchemeAndHostName() throws InterruptedException {
+			schemeAndHostNameLock.lock();
+			try {
+				while (schemeAndHostName == null) {
+					schemeAndHostNameAvailable.await();
+				}
+				return schemeAndHostName;
+			} finally {
+				schemeAndHostNameLock.unlock();
+			}
+		}
 	}
 
 }
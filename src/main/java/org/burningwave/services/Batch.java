@@ -31,7 +31,7 @@ public class Batch implements CommandLineRunner {
 
 	@Override
 	public void run(String... args) throws Exception {
-		restController.getTotalDownloads(null, null, null, null, null);
+		restController.getTotalDownloads(null, null, null, null, null).join();
 	}
 
 }
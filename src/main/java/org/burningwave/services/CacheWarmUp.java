@@ -0,0 +1,133 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads in the in-memory caches the stats of all the configured artifacts (with the default start date and
+ * months) and the star counts of the configured GitHub repositories, with a bounded parallelism. If
+ * 'wait-for-completion' is enabled the constructor returns only when the warm-up is completed (or timed out),
+ * so the application doesn't serve requests before.
+ */
+public class CacheWarmUp {
+	private final static org.slf4j.Logger logger;
+
+	private NexusConnector.Group nexusConnectorGroup;
+	private GitHubConnector gitHubConnector;
+	private int parallelism;
+	private long timeout;
+	private Collection<String> gitHubRepositories;
+
+    static {
+    	logger = org.slf4j.LoggerFactory.getLogger(CacheWarmUp.class);
+    }
+
+	public CacheWarmUp(NexusConnector.Group nexusConnectorGroup, GitHubConnector gitHubConnector, Map<String, Object> configMap) throws InterruptedException {
+		this.nexusConnectorGroup = nexusConnectorGroup;
+		this.gitHubConnector = gitHubConnector;
+		parallelism = Integer.parseInt((String)configMap.get("parallelism"));
+		timeout = Long.parseLong((String)configMap.get("timeout"));
+		gitHubRepositories = new ArrayList<>();
+		String gitHubRepositoriesAsString = (String)configMap.get("github-repositories");
+		if (gitHubRepositoriesAsString != null) {
+			for (String repository : gitHubRepositoriesAsString.split(",")) {
+				if (!repository.trim().isEmpty()) {
+					gitHubRepositories.add(repository.trim());
+				}
+			}
+		}
+		ExecutorService executor = execute();
+		if (Boolean.parseBoolean((String)configMap.get("wait-for-completion")) &&
+			!executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)
+		) {
+			logger.warn("Cache warm-up not completed in {} milliseconds: the application will start anyway", timeout);
+		}
+	}
+
+	private ExecutorService execute() {
+		List<Callable<?>> tasks = new ArrayList<>();
+		if (nexusConnectorGroup != null) {
+			for (String[] projectInfo : nexusConnectorGroup.getAllProjectInfos()) {
+				tasks.add(() ->
+					nexusConnectorGroup.getAllStats(null, null, Collections.singleton(projectInfo[0]), null, null)
+				);
+			}
+		}
+		if (gitHubConnector != null) {
+			for (String repository : gitHubRepositories) {
+				tasks.add(() ->
+					gitHubConnector.getAllStarCount(Collections.singleton(repository))
+				);
+			}
+		}
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "Cache warm-up " + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		long startTime = System.currentTimeMillis();
+		int progressStep = Math.max(1, tasks.size() / 10);
+		AtomicInteger completedTasks = new AtomicInteger();
+		AtomicInteger failedTasks = new AtomicInteger();
+		logger.info("Cache warm-up started: {} items to be loaded with parallelism {}", tasks.size(), parallelism);
+		for (Callable<?> task : tasks) {
+			executor.execute(() -> {
+				try {
+					task.call();
+				} catch (Throwable exc) {
+					failedTasks.incrementAndGet();
+					logger.warn("Exception occurred during cache warm-up: {}", exc.getMessage());
+				}
+				int completed = completedTasks.incrementAndGet();
+				if (completed == tasks.size()) {
+					logger.info(
+						"Cache warm-up completed in {} milliseconds: {} items loaded, {} failed",
+						System.currentTimeMillis() - startTime, completed - failedTasks.get(), failedTasks.get()
+					);
+				} else if (completed % progressStep == 0) {
+					logger.info("Cache warm-up progress: {}/{}", completed, tasks.size());
+				}
+			});
+		}
+		executor.shutdown();
+		return executor;
+	}
+
+}
@@ -0,0 +1,303 @@
+/*
+ * This file is part of Burningwave Miscellaneous Services.
+ *
+ * Author: Roberto Gentili
+ *
+ * Hosted at: https://github.com/burningwave/miscellaneous-services
+ *
+ * --
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022-2023 Roberto Gentili
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without
+ * limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so, subject to the following
+ * conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT
+ * LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO
+ * EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN
+ * AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE
+ * OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.burningwave.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.burningwave.Codec;
+import org.burningwave.SimpleCache;
+
+/**
+ * Binary codec for the objects stored by the connectors: the fields are written without any class
+ * descriptor and the timelines are stored as zigzag varints of the difference between consecutive months.
+ * The objects of other types are wrapped in Java serialization. Each payload starts with a format version
+ * byte and the payloads that start with the Java serialization magic number (i.e. the ones stored before
+ * this codec was introduced) are read through Java serialization.
+ */
+public class CompactCodec implements Codec {
+	private final static byte VERSION = 1;
+	private final static byte NULL = 0;
+	private final static byte JAVA_SERIALIZED = 1;
+	private final static byte STRING = 2;
+	private final static byte GET_STATS_OUTPUT = 3;
+	private final static byte GET_STAR_COUNT_OUTPUT = 4;
+	private final static byte ITEM = 5;
+
+	private final Codec.JavaSerialization javaSerialization;
+
+	public CompactCodec() {
+		javaSerialization = new Codec.JavaSerialization();
+	}
+
+	@Override
+	public byte[] encode(Serializable object) throws IOException {
+		Output output = new Output();
+		output.write(VERSION);
+		writeObject(output, object);
+		return output.toByteArray();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends Serializable> T decode(byte[] objectAsBytes) throws IOException, ClassNotFoundException {
+		if (Codec.isJavaSerialized(objectAsBytes)) {
+			return javaSerialization.decode(objectAsBytes);
+		}
+		Input input = new Input(objectAsBytes);
+		byte version = input.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported format version: " + version);
+		}
+		return (T)readObject(input);
+	}
+
+	private void writeObject(Output output, Serializable object) throws IOException {
+		if (object == null) {
+			output.write(NULL);
+		} else if (object instanceof String) {
+			output.write(STRING);
+			output.writeString((String)object);
+		} else if (object.getClass() == NexusConnector.GetStatsOutput.class) {
+			output.write(GET_STATS_OUTPUT);
+			writeGetStatsOutput(output, (NexusConnector.GetStatsOutput)object);
+		} else if (object.getClass() == GitHubConnector.GetStarCountOutput.class) {
+			output.write(GET_STAR_COUNT_OUTPUT);
+			GitHubConnector.GetStarCountOutput getStarCountOutput = (GitHubConnector.GetStarCountOutput)object;
+			output.writeDate(getStarCountOutput.getTime());
+			output.writeNullableLong(getStarCountOutput.getCount() != null ? getStarCountOutput.getCount().longValue() : null);
+		} else if (object.getClass() == SimpleCache.Item.class) {
+			output.write(ITEM);
+			SimpleCache.Item<?> item = (SimpleCache.Item<?>)object;
+			output.writeDate(item.getTime());
+			writeObject(output, item.getValue());
+		} else {
+			output.write(JAVA_SERIALIZED);
+			output.writeByteArray(javaSerialization.encode(object));
+		}
+	}
+
+	private Serializable readObject(Input input) throws IOException, ClassNotFoundException {
+		byte type = input.readByte();
+		switch (type) {
+			case NULL :
+				return null;
+			case STRING :
+				return input.readString();
+			case GET_STATS_OUTPUT :
+				return readGetStatsOutput(input);
+			case GET_STAR_COUNT_OUTPUT :
+				GitHubConnector.GetStarCountOutput getStarCountOutput = new GitHubConnector.GetStarCountOutput();
+				getStarCountOutput.setTime(input.readDate());
+				Long count = input.readNullableLong();
+				getStarCountOutput.setCount(count != null ? count.intValue() : null);
+				return getStarCountOutput;
+			case ITEM :
+				SimpleCache.Item<Serializable> item = new SimpleCache.Item<>();
+				item.setTime(input.readDate());
+				item.setValue(readObject(input));
+				return item;
+			case JAVA_SERIALIZED :
+				return javaSerialization.decode(input.readBytes());
+			default :
+				throw new IOException("Unsupported object type: " + type);
+		}
+	}
+
+	private void writeGetStatsOutput(Output output, NexusConnector.GetStatsOutput getStatsOutput) {
+		output.writeDate(getStatsOutput.getTime());
+		NexusConnector.GetStatsOutput.Data data = getStatsOutput.getData();
+		if (data == null) {
+			output.write(NULL);
+			return;
+		}
+		output.write(GET_STATS_OUTPUT);
+		output.writeString(data.getProjectId());
+		output.writeString(data.getGroupId());
+		output.writeString(data.getArtifactId());
+		output.writeString(data.getType());
+		output.writeVarLong(data.getTotal());
+		int[] values = data.getTimeline() != null ? data.getTimeline().getValues() : null;
+		if (values == null) {
+			output.writeVarLong(-1);
+			return;
+		}
+		output.writeVarLong(values.length);
+		long previousValue = 0;
+		for (int value : values) {
+			output.writeVarLong(value - previousValue);
+			previousValue = value;
+		}
+	}
+
+	private NexusConnector.GetStatsOutput readGetStatsOutput(Input input) throws IOException {
+		NexusConnector.GetStatsOutput getStatsOutput = new NexusConnector.GetStatsOutput();
+		getStatsOutput.setTime(input.readDate());
+		if (input.readByte() == NULL) {
+			return getStatsOutput;
+		}
+		NexusConnector.GetStatsOutput.Data data = new NexusConnector.GetStatsOutput.Data();
+		getStatsOutput.setData(data);
+		data.setProjectId(input.readString());
+		data.setGroupId(input.readString());
+		data.setArtifactId(input.readString());
+		data.setType(input.readString());
+		data.setTotal(input.readVarLong());
+		int size = (int)input.readVarLong();
+		if (size < 0) {
+			return getStatsOutput;
+		}
+		int[] values = new int[size];
+		long previousValue = 0;
+		for (int i = 0; i < size; i++) {
+			previousValue += input.readVarLong();
+			values[i] = (int)previousValue;
+		}
+		NexusConnector.GetStatsOutput.Data.Timeline timeline = new NexusConnector.GetStatsOutput.Data.Timeline();
+		timeline.setValues(values);
+		data.setTimeline(timeline);
+		return getStatsOutput;
+	}
+
+	private static class Output extends ByteArrayOutputStream {
+
+		private Output() {
+			super(256);
+		}
+
+		//Zigzag encoding keeps small negative numbers (e.g. the decrease of the downloads) short
+		private void writeVarLong(long value) {
+			long zigzagValue = (value << 1) ^ (value >> 63);
+			while ((zigzagValue & ~0x7FL) != 0) {
+				write((int)((zigzagValue & 0x7F) | 0x80));
+				zigzagValue >>>= 7;
+			}
+			write((int)zigzagValue);
+		}
+
+		private void writeNullableLong(Long value) {
+			if (value == null) {
+				write(NULL);
+				return;
+			}
+			write(1);
+			writeVarLong(value);
+		}
+
+		private void writeDate(Date date) {
+			writeNullableLong(date != null ? date.getTime() : null);
+		}
+
+		private void writeByteArray(byte[] value) {
+			writeVarLong(value.length);
+			write(value, 0, value.length);
+		}
+
+		private void writeString(String value) {
+			if (value == null) {
+				writeVarLong(-1);
+				return;
+			}
+			writeByteArray(value.getBytes(StandardCharsets.UTF_8));
+		}
+
+	}
+
+	private static class Input {
+		private final byte[] buffer;
+		private int position;
+
+		private Input(byte[] buffer) {
+			this.buffer = buffer;
+		}
+
+		private byte readByte() throws IOException {
+			if (position >= buffer.length) {
+				throw new IOException("Unexpected end of data");
+			}
+			return buffer[position++];
+		}
+
+		private long readVarLong() throws IOException {
+			long zigzagValue = 0;
+			int shift = 0;
+			byte current;
+			do {
+				if (shift > 63) {
+					throw new IOException("Malformed varint");
+				}
+				current = readByte();
+				zigzagValue |= (long)(current & 0x7F) << shift;
+				shift += 7;
+			} while ((current & 0x80) != 0);
+			return (zigzagValue >>> 1) ^ -(zigzagValue & 1);
+		}
+
+		private Long readNullableLong() throws IOException {
+			if (readByte() == NULL) {
+				return null;
+			}
+			return readVarLong();
+		}
+
+		private Date readDate() throws IOException {
+			Long time = readNullableLong();
+			return time != null ? new Date(time) : null;
+		}
+
+		private byte[] readBytes() throws IOException {
+			int length = (int)readVarLong();
+			if (length < 0 || position + length > buffer.length) {
+				throw new IOException("Unexpected end of data");
+			}
+			byte[] value = new byte[length];
+			System.arraycopy(buffer, position, value, 0, length);
+			position += length;
+			return value;
+		}
+
+		private String readString() throws IOException {
+			int length = (int)readVarLong();
+			if (length < 0) {
+				return null;
+			}
+			if (position + length > buffer.length) {
+				throw new IOException("Unexpected end of data");
+			}
+			String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+
+	}
+
+}
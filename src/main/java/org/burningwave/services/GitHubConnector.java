@@ -30,7 +30,6 @@ package org.burningwave.services;
 
 
 import static org.burningwave.core.assembler.StaticComponentContainer.Objects;
-import static org.burningwave.core.assembler.StaticComponentContainer.Synchronizer;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
@@ -42,20 +41,26 @@ import java.util.GregorianCalendar;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.xml.bind.JAXBException;
 
+import org.burningwave.BackgroundRefresher;
+import org.burningwave.Bulkheads;
+import org.burningwave.CircuitBreakers;
+import org.burningwave.InMemoryCache;
+import org.burningwave.Locks;
 import org.burningwave.SimpleCache;
 import org.burningwave.Throwables;
+import org.burningwave.UpstreamScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -70,22 +75,35 @@ public class GitHubConnector {
 
 	private final static org.slf4j.Logger logger;
 
-	@Autowired
 	private RestTemplate restTemplate;
+	private CircuitBreakers.CircuitBreaker circuitBreaker;
+	private UpstreamScheduler.Upstream upstream;
 	private HttpHeaders headers;
 	private Supplier<UriComponentsBuilder> reposComponentsBuilder;
-	private Map<String, GetStarCountOutput> inMemoryCache;
 	private long timeToLiveForInMemoryCache;
+	private boolean staleWhileRevalidate;
+	private long maxStaleness;
 
 	@Autowired
     private SimpleCache cache;
 
+	@Autowired
+	private InMemoryCache inMemoryCache;
+
+	@Autowired
+	private BackgroundRefresher backgroundRefresher;
+
+	@Autowired
+	private Bulkheads bulkheads;
+
     static {
     	logger = org.slf4j.LoggerFactory.getLogger(GitHubConnector.class);
     }
 
-    public GitHubConnector(Map<String, Object> configMap) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException {
-    	restTemplate = new RestTemplate();
+    public GitHubConnector(RestTemplate restTemplate, CircuitBreakers circuitBreakers, UpstreamScheduler upstreamScheduler, Map<String, Object> configMap) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException {
+    	this.restTemplate = restTemplate;
+    	circuitBreaker = circuitBreakers.get("github@" + configMap.get("host"));
+    	upstream = upstreamScheduler.get("github");
     	headers = new HttpHeaders();
     	String authorizationTokenType = (String)configMap.get("authorization.token.type");
     	String authorizationToken = (String)configMap.get("authorization.token");
@@ -97,21 +115,33 @@ public class GitHubConnector {
         	.host((String)configMap
         	.get("host"))
         	.pathSegment("repos");
-        inMemoryCache = new ConcurrentHashMap<>();
         timeToLiveForInMemoryCache = Long.parseLong((String)configMap.get("cache.ttl"));
+        staleWhileRevalidate = Boolean.parseBoolean((String)configMap.get("cache.stale-while-revalidate"));
+        maxStaleness = Long.parseLong((String)configMap.get("cache.max-staleness"));
     }
 
 
 	@SuppressWarnings("rawtypes")
-	private GetStarCountOutput callRetrieveInfoRemote(Input input) {
+	private GetStarCountOutput callRetrieveInfoRemote(Input input, boolean deferrable) {
 		UriComponents uriComponents =
 			reposComponentsBuilder.get().pathSegment(input.getUsername()).pathSegment(input.getRepositoyName())
 			.build();
-		ResponseEntity<Map> response = restTemplate.exchange(
-			uriComponents.toString(),
-			HttpMethod.GET,
-			new HttpEntity<String>(headers),
-			Map.class
+		ResponseEntity<Map> response = upstream.execute(getKey(input), deferrable, () ->
+			circuitBreaker.execute(() -> {
+				try {
+					ResponseEntity<Map> remoteResponse = restTemplate.exchange(
+						uriComponents.toString(),
+						HttpMethod.GET,
+						new HttpEntity<String>(headers),
+						Map.class
+					);
+					upstream.updateQuota(remoteResponse.getHeaders());
+					return remoteResponse;
+				} catch (HttpStatusCodeException exc) {
+					upstream.updateQuota(exc.getResponseHeaders());
+					throw exc;
+				}
+			})
 		);
 		Map remoteServiceOutput = response.getBody();
 		GetStarCountOutput output = new GetStarCountOutput();
@@ -120,7 +150,7 @@ public class GitHubConnector {
 	}
 
 	public void clearCache() {
-		inMemoryCache.clear();
+		inMemoryCache.clear(key -> key.startsWith(Input.class.getName() + ";"));
 		logger.info("In memory cache cleaning done");
 	}
 
@@ -130,21 +160,40 @@ public class GitHubConnector {
 		if (output == null) {
 			output = cache.load(key);
 			if (output != null) {
-				inMemoryCache.put(key, output);
+				inMemoryCache.put(key, output, GetStarCountOutput.WEIGHT);
 			}
 		}
 		if (output != null) {
-			if ((new Date().getTime() - output.getTime().getTime()) <= timeToLiveForInMemoryCache) {
+			//Only the repositories already retrieved are counted, so that the names sent by the clients that don't
+			//exist can't fill the counters
+			upstream.recordAccess(key);
+			long age = new Date().getTime() - output.getTime().getTime();
+			if (age <= timeToLiveForInMemoryCache) {
     			return output;
     		}
+			if (staleWhileRevalidate && age <= timeToLiveForInMemoryCache + maxStaleness) {
+				GetStarCountOutput staleOutput = output;
+				backgroundRefresher.refresh(Objects.getId(this) + key, () -> refreshStarCount(input, key, staleOutput));
+				return output;
+			}
 		}
-		GetStarCountOutput oldOutput = output;
-		return Synchronizer.execute(Objects.getId(this) + key, () -> {
+		return refreshStarCount(input, key, output);
+    }
+
+	private GetStarCountOutput refreshStarCount(Input input, String key, GetStarCountOutput oldOutput) {
+		return Locks.execute(Objects.getId(this) + key, () -> {
+			GetStarCountOutput currentOutput = inMemoryCache.get(key);
+			if (currentOutput != null && currentOutput != oldOutput &&
+				(new Date().getTime() - currentOutput.getTime().getTime()) <= timeToLiveForInMemoryCache
+			) {
+				return currentOutput;
+			}
 			GetStarCountOutput newOutput;
 			try {
-				newOutput = callRetrieveInfoRemote(input);
+				newOutput = callRetrieveInfoRemote(input, oldOutput != null);
 			} catch (Throwable exc) {
 				if (oldOutput != null) {
+					logger.warn("Unable to refresh {}, the old value will be returned: {}", key, exc.getMessage());
 					return oldOutput;
 				}
 				return Throwables.rethrow(exc);
@@ -157,10 +206,10 @@ public class GitHubConnector {
 			newDate.set(Calendar.MILLISECOND, 0);
     		newOutput.setTime(newDate.getTime());
     		cache.store(key, newOutput);
-			inMemoryCache.put(key, newOutput);
+			inMemoryCache.put(key, newOutput, GetStarCountOutput.WEIGHT);
 			return newOutput;
 		});
-    }
+	}
 
     private String getKey(Input input) {
     	return
@@ -174,6 +223,13 @@ public class GitHubConnector {
 		return merge(invoke(this::getStarCount, repositories).stream().map(outputSupplier -> outputSupplier.join()).collect(Collectors.toList()));
 	}
 
+	public CompletableFuture<Integer> getAllStarCountAsync(Set<String> repositories) {
+		Collection<CompletableFuture<GetStarCountOutput>> outputSuppliers = invoke(this::getStarCount, repositories);
+		return CompletableFuture.allOf(outputSuppliers.toArray(new CompletableFuture<?>[outputSuppliers.size()])).thenApply(allCompleted ->
+			merge(outputSuppliers.stream().map(outputSupplier -> outputSupplier.join()).collect(Collectors.toList()))
+		);
+	}
+
 	private Integer merge(Collection<GetStarCountOutput> getStatsOutputs) {
 		if (getStatsOutputs != null && getStatsOutputs.size() > 0) {
 			Integer count = 0;
@@ -194,7 +250,8 @@ public class GitHubConnector {
 			input.setRepositoyName(repositoryInfos[1]);
 			outputSuppliers.add(
 				CompletableFuture.supplyAsync(() ->
-					function.apply(input)
+					function.apply(input),
+					bulkheads.get("github")
 				)
 			);
 		}
@@ -217,6 +274,7 @@ public class GitHubConnector {
 	public static class GetStarCountOutput implements Serializable {
 
 		private static final long serialVersionUID = 5045091698760296866L;
+		static final long WEIGHT = 128;
 
 		private Date time;
 		private Integer count;
@@ -48,7 +48,6 @@ public class HerokuConnector {
 	private HttpHeaders remoteAppHttpHeaders;
 	private Function<String, String> uriSupplier;
 
-	@Autowired
 	private RestTemplate restTemplate;
 
 	@Autowired
@@ -58,7 +57,8 @@ public class HerokuConnector {
     	logger = org.slf4j.LoggerFactory.getLogger(HerokuConnector.class);
     }
 
-    public HerokuConnector(Map<String, String> configuration) {
+    public HerokuConnector(RestTemplate restTemplate, Map<String, String> configuration) {
+    	this.restTemplate = restTemplate;
     	appHttpHeaders = new HttpHeaders();
     	appHttpHeaders.add("Authorization", "Bearer " + configuration.get("authorization.token"));
     	appHttpHeaders.add("Accept", "application/vnd.heroku+json; version=3");
@@ -76,16 +76,7 @@ public class HerokuConnector {
     }
 
     public void switchToRemoteApp() throws InterruptedException {
-    	String schemeAndHostName = applicationEnvironment.schemeAndHostName;
-    	while (applicationEnvironment.schemeAndHostName == null) {
-    		synchronized(applicationEnvironment) {
-    			try {
-					applicationEnvironment.wait();
-				} catch (InterruptedException exc) {
-					logger.error("Exception occurred", exc);
-				}
-    		}
-    	}
+    	String schemeAndHostName = applicationEnvironment.awaitSchemeAndHostName();
     	String appName = schemeAndHostName.substring(schemeAndHostName.indexOf("//") + 2, schemeAndHostName.indexOf("."));
         JSONObject request = new JSONObject();
 
@@ -29,33 +29,44 @@
 package org.burningwave.services;
 
 import static org.burningwave.core.assembler.StaticComponentContainer.Objects;
-import static org.burningwave.core.assembler.StaticComponentContainer.Synchronizer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -64,15 +75,29 @@ import java.util.stream.Collectors;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
-
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.burningwave.BackgroundRefresher;
+import org.burningwave.Bulkheads;
+import org.burningwave.CircuitBreakers;
+import org.burningwave.Deadline;
+import org.burningwave.HostSelector;
+import org.burningwave.InMemoryCache;
+import org.burningwave.Locks;
+import org.burningwave.RefreshScheduler;
 import org.burningwave.SimpleCache;
 import org.burningwave.Throwables;
+import org.burningwave.UpstreamScheduler;
 import org.burningwave.Utility;
 import org.burningwave.services.NexusConnector.Project.Artifact;
 import org.springframework.http.HttpEntity;
@@ -93,16 +118,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class NexusConnector {
 	private static final org.slf4j.Logger logger;
 	private static Pattern latestReleasePattern;
+	private static XMLInputFactory xmlInputFactory;
 
 	private RestTemplate restTemplate;
 	private HttpEntity<String> entity;
 	private JAXBContext jaxbContext;
+	private ThreadLocal<Unmarshaller> unmarshallers;
 	private Supplier<UriComponentsBuilder> getStatsUriComponentsBuilder;
 	private Collection<Project> allProjects;
-	private Map<String, Object> inMemoryCache;
+	private volatile Index index;
+	private InMemoryCache inMemoryCache;
 	private long timeToLiveForInMemoryCache;
+	private boolean staleWhileRevalidate;
+	private long maxStaleness;
+	private boolean incrementalRefresh;
+	private int incrementalRefreshOverlap;
 	private int dayOfTheMonthFromWhichToLeave;
     private SimpleCache cache;
+    private BackgroundRefresher backgroundRefresher;
+    private RefreshScheduler refreshScheduler;
+    private Bulkheads bulkheads;
+    private CircuitBreakers circuitBreakers;
+    private HostSelector hostSelector;
+    private UpstreamScheduler.Upstream upstream;
+    private String scheme;
     private Utility utility;
 
 
@@ -110,11 +149,20 @@ public class NexusConnector {
     static {
     	logger = org.slf4j.LoggerFactory.getLogger(NexusConnector.class);
     	latestReleasePattern = Pattern.compile("<latestRelease>(.*?)<\\/latestRelease>");
+    	xmlInputFactory = XMLInputFactory.newInstance();
+    	xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    	xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     }
 
-    public NexusConnector(RestTemplate restTemplate, SimpleCache cache, Utility utility, Configuration nexusConfiguration) throws JAXBException, ParseException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException, JsonProcessingException {
+    public NexusConnector(RestTemplate restTemplate, SimpleCache cache, InMemoryCache inMemoryCache, BackgroundRefresher backgroundRefresher, RefreshScheduler refreshScheduler, Bulkheads bulkheads, CircuitBreakers circuitBreakers, UpstreamScheduler upstreamScheduler, Utility utility, Configuration nexusConfiguration, Map<String, Object> hostSelectorConfigMap) throws JAXBException, ParseException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException, JsonProcessingException {
     	this.restTemplate = restTemplate;
     	this.cache = cache;
+    	this.inMemoryCache = inMemoryCache;
+    	this.backgroundRefresher = backgroundRefresher;
+    	this.refreshScheduler = refreshScheduler;
+    	this.bulkheads = bulkheads;
+    	this.circuitBreakers = circuitBreakers;
+    	upstream = upstreamScheduler.get("nexus");
     	this.utility = utility;
     	HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", nexusConfiguration.getAuthorization().getToken().getType() + " " + nexusConfiguration.getAuthorization().getToken().getValue());
@@ -124,6 +172,13 @@ public class NexusConnector {
     		GetArtifactListOutput.class,
     		GetStatsOutput.class
     	);
+        unmarshallers = ThreadLocal.withInitial(() -> {
+        	try {
+        		return jaxbContext.createUnmarshaller();
+        	} catch (JAXBException exc) {
+        		return Throwables.rethrow(exc);
+        	}
+        });
 		String username = new String(
 			Base64.getDecoder().decode(
 				entity.getHeaders().get("Authorization").iterator().next().split("\\s")[1]
@@ -134,17 +189,21 @@ public class NexusConnector {
         if (configurationObjectsFromCache == null) {
         	configurationObjectsFromCache = new Object[2];
         }
-        setHost(nexusConfiguration, configurationObjectsFromCache, username);
+        setHost(nexusConfiguration, configurationObjectsFromCache, username, hostSelectorConfigMap);
         setProjectInfos(nexusConfiguration, configurationObjectsFromCache);
         cache.store(configurationObjectsKey, configurationObjectsFromCache);
         logger.info("Projects configuration: {}", allProjects);
-        inMemoryCache = new ConcurrentHashMap<>();
         timeToLiveForInMemoryCache = nexusConfiguration.getCache().getTtl();
+        staleWhileRevalidate = nexusConfiguration.getCache().getStaleWhileRevalidate();
+        maxStaleness = nexusConfiguration.getCache().getMaxStaleness();
         dayOfTheMonthFromWhichToLeave = nexusConfiguration.getCache().getDayOfTheMonthFromWhichToLeave();
+        incrementalRefresh = nexusConfiguration.getCache().getIncrementalRefresh();
+        incrementalRefreshOverlap = nexusConfiguration.getCache().getIncrementalRefreshOverlap();
     }
 
-	public void setHost(Configuration nexusConfiguration, Object[] configurationObjectsFromCache, String username) throws JAXBException {
+	public void setHost(Configuration nexusConfiguration, Object[] configurationObjectsFromCache, String username, Map<String, Object> hostSelectorConfigMap) throws JAXBException {
 		String[] hosts = nexusConfiguration.getHost().split("\\|");
+		Collection<String> availableHosts = new ArrayList<>();
 		for (String host : hosts) {
     		getStatsUriComponentsBuilder = () ->
     			UriComponentsBuilder.newInstance().scheme(nexusConfiguration.getScheme()).host(host);
@@ -152,6 +211,7 @@ public class NexusConnector {
 				callGetGroupListRemote();
 				logger.info("Login successful on {} for user {}", host, username);
 				configurationObjectsFromCache[0] = new String[] {nexusConfiguration.getScheme(), host};
+				availableHosts.add(host);
 			} catch (org.springframework.web.client.HttpClientErrorException | org.springframework.web.client.HttpServerErrorException exc) {
 				logger.info("Unable to login {} on {}: {}", username, host, exc.getMessage());
 				if (host == hosts[hosts.length - 1]) {
@@ -166,10 +226,24 @@ public class NexusConnector {
 				}
 			}
     	}
-		if (configurationObjectsFromCache[0] != null ) {
-			getStatsUriComponentsBuilder = () ->
-				UriComponentsBuilder.newInstance().scheme(((String[])configurationObjectsFromCache[0])[0]).host(((String[])configurationObjectsFromCache[0])[1]);
+		String[] schemeAndHost = (String[])configurationObjectsFromCache[0];
+		if (availableHosts.isEmpty()) {
+			availableHosts.add(schemeAndHost[1]);
 		}
+		scheme = schemeAndHost[0];
+		//The calls are routed at runtime to the best of the hosts on which the login was successful
+		hostSelector = new HostSelector("nexus", availableHosts, circuitBreakers, bulkheads, upstream, hostSelectorConfigMap);
+		getStatsUriComponentsBuilder = () ->
+			UriComponentsBuilder.newInstance().scheme(scheme).host(hostSelector.getPreferredHost());
+	}
+
+	//Each host has its own executor so that a slow host can't exhaust the threads of the others
+	Executor getExecutor() {
+		return bulkheads.get("nexus@" + hostSelector.getPreferredHost());
+	}
+
+	public Map<String, HostSelector.Stats> getHostStats() {
+		return hostSelector.getStats();
 	}
 
 	private void setProjectInfos(Configuration nexusConfiguration, Object[] configurationObjectsFromCache) throws ParseException, JAXBException, JsonMappingException, JsonProcessingException {
@@ -218,7 +292,7 @@ public class NexusConnector {
 						removeArtifactForName(project, artifactFromConfig.getName());
 						continue;
 					}
-					Project.Artifact artifact = getArtifactForName(project, artifactFromConfig.getName());
+					Project.Artifact artifact = get(project, Project.Artifact::getName, Arrays.asList(artifactFromConfig.getName())).stream().findFirst().orElseGet(() -> null);
 					if (artifact == null) {
 						if ("ifNotExists".equals(artifactFromConfig.skip)) {
 							continue;
@@ -235,13 +309,12 @@ public class NexusConnector {
 		for (Project project : allProjects) {
 			project.setStartDate(startDateAsCalendar);
 		}
+		index = new Index(allProjects);
 	}
 
 	public void clearCache() {
-		synchronized(inMemoryCache) {
-			inMemoryCache.clear();
-			logger.info("In memory cache cleaning done");
-		}
+		inMemoryCache.clear(key -> key.startsWith(GetStatsInput.class.getName() + ";") || key.endsWith(".latestRelease"));
+		logger.info("In memory cache cleaning done");
 	}
 
 	public Collection<String[]> getAllProjectInfos() {
@@ -255,83 +328,216 @@ public class NexusConnector {
 	}
 
     public GetStatsOutput getStats(GetStatsInput input) {
-		String key = getKey(input);
-		GetStatsOutput output = (GetStatsOutput)inMemoryCache.get(key);
+		GetStatsInput canonicalInput = toCanonicalInput(input);
+		String key = getKey(canonicalInput);
+		upstream.recordAccess(getUpstreamKey(canonicalInput));
+		GetStatsOutput output = inMemoryCache.get(key);
 		if (output == null) {
 			output = cache.load(key);
 			if (output != null) {
-				inMemoryCache.put(key, output);
+				inMemoryCache.put(key, output, output.estimateWeight());
+			}
+		}
+		return slice(getStats(canonicalInput, key, output, Deadline.NONE), canonicalInput, input);
+    }
+
+	//Only the full history timeline of each artifact is retrieved and cached: the other time windows
+	//are sliced from it
+	GetStatsInput toCanonicalInput(GetStatsInput input) {
+		Date startDate = getProject(input).getStartDate().getTime();
+		return new GetStatsInput(input.getProjectId(), input.getGroupId(), input.getArtifactId(), startDate, computeDefaultMonths(startDate));
+	}
+
+	GetStatsOutput slice(GetStatsOutput output, GetStatsInput canonicalInput, GetStatsInput input) {
+		GetStatsOutput.Data data = output.getData();
+		if (data == null || data.getTimeline() == null || data.getTimeline().getValues() == null ||
+			(input.getStartDate().equals(canonicalInput.getStartDate()) && input.getMonths().equals(canonicalInput.getMonths()))
+		) {
+			return output;
+		}
+		int[] values = data.getTimeline().getValues();
+		int offset = monthsBetween(canonicalInput.getStartDate(), input.getStartDate());
+		int[] slicedValues = new int[input.getMonths()];
+		long total = 0;
+		for (int i = Math.max(0, -offset); i < slicedValues.length && offset + i < values.length; i++) {
+			slicedValues[i] = values[offset + i];
+			total += slicedValues[i];
+		}
+		GetStatsOutput.Data.Timeline slicedTimeline = new GetStatsOutput.Data.Timeline();
+		slicedTimeline.setValues(slicedValues);
+		GetStatsOutput.Data slicedData = new GetStatsOutput.Data();
+		slicedData.setProjectId(data.getProjectId());
+		slicedData.setGroupId(data.getGroupId());
+		slicedData.setArtifactId(data.getArtifactId());
+		slicedData.setType(data.getType());
+		slicedData.setTotal(total);
+		slicedData.setTimeline(slicedTimeline);
+		GetStatsOutput slicedOutput = new GetStatsOutput();
+		slicedOutput.setTime(output.getTime());
+		slicedOutput.setData(slicedData);
+		return slicedOutput;
+	}
+
+	Map<String, GetStatsOutput> loadAllStats(Collection<String> keys) {
+		Map<String, GetStatsOutput> outputs = new HashMap<>();
+		Collection<String> keysToBeLoaded = new ArrayList<>();
+		for (String key : keys) {
+			GetStatsOutput output = inMemoryCache.get(key);
+			if (output != null) {
+				outputs.put(key, output);
+			} else {
+				keysToBeLoaded.add(key);
+			}
+		}
+		if (!keysToBeLoaded.isEmpty()) {
+			Map<String, GetStatsOutput> loadedOutputs = cache.loadAll(keysToBeLoaded);
+			for (Map.Entry<String, GetStatsOutput> loadedOutput : loadedOutputs.entrySet()) {
+				inMemoryCache.put(loadedOutput.getKey(), loadedOutput.getValue(), loadedOutput.getValue().estimateWeight());
 			}
+			outputs.putAll(loadedOutputs);
+		}
+		return outputs;
+	}
+
+	//Keeps the full history timelines of all the configured artifacts hot
+	void scheduleRefreshes() {
+		Map<String, GetStatsInput> canonicalInputs = new LinkedHashMap<>();
+		for (Project project : allProjects) {
+			for (Project.Artifact artifact : project.getArtifacts()) {
+				GetStatsInput canonicalInput = toCanonicalInput(new GetStatsInput(project.getId(), project.getName(), artifact.getName(), null, null));
+				canonicalInputs.put(getKey(canonicalInput), canonicalInput);
+			}
+		}
+		Map<String, GetStatsOutput> outputs = loadAllStats(canonicalInputs.keySet());
+		for (Map.Entry<String, GetStatsInput> canonicalInput : canonicalInputs.entrySet()) {
+			scheduleRefresh(canonicalInput.getValue(), canonicalInput.getKey(), outputs.get(canonicalInput.getKey()));
 		}
+		logger.info("Refresh of {} artifacts scheduled", canonicalInputs.size());
+	}
+
+	//If the output has been refreshed in the meantime only the next refresh is scheduled
+	private void scheduleRefresh(GetStatsInput input, String key, GetStatsOutput output) {
+		long expiration = output != null ? output.getTime().getTime() + timeToLiveForInMemoryCache : 0;
+		refreshScheduler.schedule(Objects.getId(this) + key, expiration, () -> {
+			GetStatsOutput currentOutput = loadAllStats(Collections.singleton(key)).get(key);
+			try {
+				if (currentOutput == null || currentOutput.getTime().getTime() + timeToLiveForInMemoryCache <= expiration) {
+					currentOutput = refreshStats(toCanonicalInput(input), key, currentOutput, Deadline.NONE);
+				}
+			} finally {
+				scheduleRefresh(input, key, currentOutput);
+			}
+		});
+	}
+
+	boolean isFresh(GetStatsOutput output) {
+		return output != null && (new Date().getTime() - output.getTime().getTime()) <= timeToLiveForInMemoryCache;
+	}
+
+	GetStatsOutput getStats(GetStatsInput input, String key, GetStatsOutput output, Deadline deadline) {
 		if (output != null) {
-			if ((new Date().getTime() - output.getTime().getTime()) <= timeToLiveForInMemoryCache) {
+			long age = new Date().getTime() - output.getTime().getTime();
+			if (age <= timeToLiveForInMemoryCache) {
     			return output;
     		}
+			if (staleWhileRevalidate && age <= timeToLiveForInMemoryCache + maxStaleness) {
+				GetStatsOutput staleOutput = output;
+				backgroundRefresher.refresh(Objects.getId(this) + key, () -> refreshStats(input, key, staleOutput, Deadline.NONE));
+				return output;
+			}
 		}
-		GetStatsOutput oldOutput = output;
-		return Synchronizer.execute(Objects.getId(this) + key, () -> {
+		return refreshStats(input, key, output, deadline);
+    }
+
+	//When the deadline expires while waiting for the lock or for the remote call the old value is returned, if present
+	private GetStatsOutput refreshStats(GetStatsInput input, String key, GetStatsOutput oldOutput, Deadline deadline) {
+		return Locks.execute(Objects.getId(this) + key, deadline, () -> {
+			GetStatsOutput currentOutput = inMemoryCache.get(key);
+			if (currentOutput != null && currentOutput != oldOutput &&
+				(new Date().getTime() - currentOutput.getTime().getTime()) <= timeToLiveForInMemoryCache
+			) {
+				return currentOutput;
+			}
     		GetStatsOutput newOutput;
 			try {
-				newOutput = callGetStatsRemote(input);
+				newOutput = deadline.call(() ->
+					incrementalRefresh && oldOutput != null ?
+						callGetStatsRemoteIncrementally(input, oldOutput) :
+						callGetStatsRemote(input, oldOutput != null)
+				);
 			} catch (Throwable exc) {
 				if (oldOutput != null) {
+					logger.warn("Unable to refresh {}, the old value will be returned: {}", key, exc.getMessage());
 					return oldOutput;
 				}
 				return Throwables.rethrow(exc);
 			}
     		Calendar newDate = utility.newCalendarAtTheStartOfTheMonth();
 			newDate.set(Calendar.DATE, dayOfTheMonthFromWhichToLeave);
-			Runnable storer = () -> cache.storeAndNotify(key, newOutput, oldOutput);
-			if (Integer.valueOf(0).equals(newOutput.getData().getTimeline().getValues().stream().reduce((prev, next) -> next).orElse(null))) {
+			int[] newValues = newOutput.getData().getTimeline().getValues();
+			if (newValues.length > 0 && newValues[newValues.length - 1] == 0) {
 				if (oldOutput != null) {
 	    			newDate.setTime(oldOutput.getTime());
 	    			newDate.add(Calendar.DATE, 1);
 				} else {
 					newDate.add(Calendar.MONTH, -1);
 				}
-    			if (!isStartDateEqualsToDefaultValue(input) && !isMonthsEqualsToDefaultValue(input)) {
-    				storer = () -> cache.store(key, newOutput);
-    			}
 			}
     		newOutput.setTime(newDate.getTime());
-    		storer.run();
-			inMemoryCache.put(key, newOutput);
+    		cache.storeAndNotify(key, newOutput, oldOutput);
+			inMemoryCache.put(key, newOutput, newOutput.estimateWeight());
 			return newOutput;
+		}, () -> {
+			if (oldOutput != null) {
+				logger.warn("Deadline expired while waiting for the refresh of {}, the old value will be returned", key);
+				return oldOutput;
+			}
+			return Throwables.rethrow(new TimeoutException("Deadline expired while waiting for the refresh of " + key));
 		});
-
-    }
+	}
 
 	private boolean isMonthsEqualsToDefaultValue(GetStatsInput input) {
 		return computeDefaultMonths(input.getStartDate()) == input.getMonths();
 	}
 
-	private boolean isStartDateEqualsToDefaultValue(GetStatsInput input) {
-		Project group = getProject(input);
-		return group.getStartDate().getTime().equals(input.getStartDate());
+	private int computeDefaultMonths(Date startDate) {
+		return monthsBetween(startDate, new Date());
 	}
 
-	private int computeDefaultMonths(Date startDate) {
-		Calendar today = new GregorianCalendar();
-        today.setTime(new Date());
+	private int monthsBetween(Date startDate, Date endDate) {
+		Calendar endDateAsCalendar = new GregorianCalendar();
+		endDateAsCalendar.setTime(endDate);
         Calendar startDateAsCalendar = new GregorianCalendar();
         startDateAsCalendar.setTime(startDate);
         return
-        	((today.get(Calendar.YEAR) - startDateAsCalendar.get(Calendar.YEAR)) *12 ) +
-        	today.get(Calendar.MONTH) - startDateAsCalendar.get(Calendar.MONTH);
+        	((endDateAsCalendar.get(Calendar.YEAR) - startDateAsCalendar.get(Calendar.YEAR)) *12 ) +
+        	endDateAsCalendar.get(Calendar.MONTH) - startDateAsCalendar.get(Calendar.MONTH);
 	}
 
 	private Project getProject(GetStatsInput input) {
-		for (Project project : allProjects) {
-			if (project.getName().equals(input.getGroupId()) && containsArtifactNames(project, input.getArtifactId())) {
-				return project;
-			}
+		Index index = this.index;
+		Project project = index.getProject(input.getGroupId());
+		if (project != null && index.getArtifact(project.getName(), input.getArtifactId()) != null) {
+			return project;
 		}
 		logger.error("Could not retrieve group for input values '{}' - '{}'", input.getGroupId(), input.getArtifactId());
 		return null;
 	}
 
 	private Project getProject(String projectId) {
-		return getProject(this.allProjects, projectId);
+		return index.getProject(projectId);
+	}
+
+	private Collection<Project> getProjects(Collection<String> projectIds) {
+		Index index = this.index;
+		Collection<Project> projects = new ArrayList<>();
+		for (String projectId : projectIds) {
+			Project project = index.getProject(projectId);
+			if (project != null) {
+				projects.add(project);
+			}
+		}
+		return projects;
 	}
 
 	private Project getProject(Collection<Project> projects, String projectId) {
@@ -344,7 +550,7 @@ public class NexusConnector {
 	}
 
 	public Artifact getArtifactForName(Project project, String id) {
-		return get(project, Project.Artifact::getName, Arrays.asList(id)).stream().findFirst().orElseGet(() -> null);
+		return index.getArtifact(project.getName(), id);
 	}
 
 	private void removeArtifactForName(Project project, String name) {
@@ -356,16 +562,19 @@ public class NexusConnector {
 		}
 	}
 
-	public Collection<Artifact> getArtifactForAliases(Project project, Collection<String> aliases) {
-		return get(project, Project.Artifact::getAlias, aliases);
+	//Returns the unmodifiable collection held by the index
+	public Collection<Artifact> getArtifactsForAlias(Project project, String alias) {
+		return index.getArtifactsForAlias(project.getName(), alias);
 	}
 
 	private boolean containsArtifactNames(Project project, String... artifactIds) {
-		return containsArtifactNames(project, Arrays.asList(artifactIds));
-	}
-
-	private boolean containsArtifactNames(Project project, Collection<String> artifactIds) {
-		return !get(project, Project.Artifact::getName, artifactIds).isEmpty();
+		Index index = this.index;
+		for (String artifactId : artifactIds) {
+			if (index.getArtifact(project.getName(), artifactId) != null) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	private Collection<Project.Artifact> get(Project project, Function<Artifact, String> propertySupplier, Collection<String> values) {
@@ -386,7 +595,8 @@ public class NexusConnector {
 
 	public SimpleCache.Item<String> getLatestRelease(String groupId, String artifactId) {
 		String key = groupId + ":" + artifactId + ".latestRelease";
-		SimpleCache.Item<String> output = (SimpleCache.Item<String>)inMemoryCache.get(key);
+		upstream.recordAccess(groupId + ":" + artifactId);
+		SimpleCache.Item<String> output = inMemoryCache.get(key);
 		if (output == null) {
 			output = cache.load(key);
 			if (output != null) {
@@ -399,10 +609,10 @@ public class NexusConnector {
     		}
 		}
 		SimpleCache.Item<String> oldOutput = output;
-		return Synchronizer.execute(Objects.getId(this) + key, () -> {
+		return Locks.execute(Objects.getId(this) + key, () -> {
 			SimpleCache.Item<String> newOutput;
 			try {
-				newOutput = callGetLatestRelease(groupId, artifactId);
+				newOutput = callGetLatestRelease(groupId, artifactId, oldOutput != null);
 			} catch (Throwable exc) {
 				if (oldOutput != null) {
 					return oldOutput;
@@ -416,19 +626,21 @@ public class NexusConnector {
 		});
 	}
 
-	public SimpleCache.Item<String> callGetLatestRelease(String groupId, String artifactId) {
-		UriComponents uriComponents =
-			getStatsUriComponentsBuilder.get()
-			.path("/service/local/lucene/search")
-			.queryParam("g", groupId)
-			.queryParam("a", artifactId)
-			.queryParam("collapseresults", "true")
-			.build();
-		ResponseEntity<String> response = restTemplate.exchange(
-			uriComponents.toString(),
-			HttpMethod.GET,
-			entity,
-			String.class
+	public SimpleCache.Item<String> callGetLatestRelease(String groupId, String artifactId, boolean deferrable) {
+		ResponseEntity<String> response = upstream.execute(groupId + ":" + artifactId, deferrable, () ->
+			hostSelector.execute(host ->
+				restTemplate.exchange(
+					UriComponentsBuilder.newInstance().scheme(scheme).host(host)
+					.path("/service/local/lucene/search")
+					.queryParam("g", groupId)
+					.queryParam("a", artifactId)
+					.queryParam("collapseresults", "true")
+					.build().toString(),
+					HttpMethod.GET,
+					entity,
+					String.class
+				)
+			)
 		);
 		String responseBody = response.getBody();
 		if (responseBody != null) {
@@ -449,14 +661,12 @@ public class NexusConnector {
 			.pathSegment(input.getGroupId())
 			.queryParam("g", input.getProjectId())
 			.build();
-		ResponseEntity<String> response = restTemplate.exchange(
+		return restTemplate.execute(
 			uriComponents.toString(),
 			HttpMethod.GET,
-			entity,
-			String.class
+			restTemplate.httpEntityCallback(entity),
+			response -> unmarshal(response.getBody())
 		);
-		GetArtifactListOutput output = (GetArtifactListOutput) jaxbContext.createUnmarshaller().unmarshal(new StringReader(response.getBody()));
-		return output;
 	}
 
 	private GetGroupListOutput callGetGroupListRemote() throws JAXBException {
@@ -464,37 +674,138 @@ public class NexusConnector {
 			getStatsUriComponentsBuilder.get()
 			.path("/service/local/stats/projects")
 			.build();
-		ResponseEntity<String> response = restTemplate.exchange(
+		return restTemplate.execute(
 			uriComponents.toString(),
 			HttpMethod.GET,
-			entity,
-			String.class
+			restTemplate.httpEntityCallback(entity),
+			response -> unmarshal(response.getBody())
 		);
-		GetGroupListOutput output = (GetGroupListOutput) jaxbContext.createUnmarshaller().unmarshal(new StringReader(response.getBody()));
-		return output;
 	}
 
-	private GetStatsOutput callGetStatsRemote(GetStatsInput input) throws JAXBException {
-		UriComponents uriComponents =
-			getStatsUriComponentsBuilder.get()
-			.path("/service/local/stats/timeline")
-			.queryParam("t", "raw")
-			.queryParam("g", input.getGroupId())
-			.queryParam("p", input.getProjectId())
-			.queryParamIfPresent("a", Optional.ofNullable(input.getArtifactId()))
-			.queryParam("from", new SimpleDateFormat("yyyyMM").format(input.getStartDate()))
-			.queryParam("nom", input.getMonths())
-			.build();
-		ResponseEntity<String> response = restTemplate.exchange(
-			uriComponents.toString(),
-			HttpMethod.GET,
-			entity,
-			String.class
+	private GetStatsOutput callGetStatsRemote(GetStatsInput input, boolean deferrable) throws JAXBException {
+		return upstream.execute(getUpstreamKey(input), deferrable, () ->
+			hostSelector.execute(host ->
+				restTemplate.execute(
+					UriComponentsBuilder.newInstance().scheme(scheme).host(host)
+					.path("/service/local/stats/timeline")
+					.queryParam("t", "raw")
+					.queryParam("g", input.getGroupId())
+					.queryParam("p", input.getProjectId())
+					.queryParamIfPresent("a", Optional.ofNullable(input.getArtifactId()))
+					.queryParam("from", new SimpleDateFormat("yyyyMM").format(input.getStartDate()))
+					.queryParam("nom", input.getMonths())
+					.build().toString(),
+					HttpMethod.GET,
+					restTemplate.httpEntityCallback(entity),
+					response -> readStats(response.getBody())
+				)
+			)
+		);
+	}
+
+	//The popularity of the stats is tracked regardless of the time window requested
+	private String getUpstreamKey(GetStatsInput input) {
+		return input.getProjectId() + ";" + input.getGroupId() + ";" + input.getArtifactId();
+	}
+
+	//Retrieves only the months following the ones already cached (plus an overlap for catching the late
+	//corrections) and splices them into the cached timeline
+	private GetStatsOutput callGetStatsRemoteIncrementally(GetStatsInput input, GetStatsOutput oldOutput) throws JAXBException {
+		GetStatsOutput.Data oldData = oldOutput.getData();
+		int[] oldValues = oldData != null && oldData.getTimeline() != null ? oldData.getTimeline().getValues() : null;
+		int reusedMonths = oldValues != null ?
+			Math.min(oldValues.length, input.getMonths()) - incrementalRefreshOverlap : 0;
+		if (reusedMonths <= 0) {
+			return callGetStatsRemote(input, true);
+		}
+		Calendar startDate = new GregorianCalendar();
+		startDate.setTime(input.getStartDate());
+		startDate.add(Calendar.MONTH, reusedMonths);
+		GetStatsOutput output = callGetStatsRemote(
+			new GetStatsInput(input.getProjectId(), input.getGroupId(), input.getArtifactId(), startDate.getTime(), input.getMonths() - reusedMonths),
+			true
 		);
-		GetStatsOutput output = (GetStatsOutput) jaxbContext.createUnmarshaller().unmarshal(new StringReader(response.getBody()));
+		GetStatsOutput.Data data = output.getData();
+		if (data == null || data.getTimeline() == null || data.getTimeline().getValues() == null) {
+			return callGetStatsRemote(input, true);
+		}
+		int[] newValues = data.getTimeline().getValues();
+		int[] values = Arrays.copyOf(oldValues, reusedMonths + newValues.length);
+		System.arraycopy(newValues, 0, values, reusedMonths, newValues.length);
+		long replacedTotal = 0;
+		for (int i = reusedMonths; i < oldValues.length; i++) {
+			replacedTotal += oldValues[i];
+		}
+		data.setTotal(oldData.getTotal() - replacedTotal + data.getTotal());
+		data.getTimeline().setValues(values);
 		return output;
 	}
 
+	private <T> T unmarshal(InputStream inputStream) {
+		try {
+			return (T)unmarshallers.get().unmarshal(inputStream);
+		} catch (JAXBException exc) {
+			return Throwables.rethrow(exc);
+		}
+	}
+
+	//Reads the stats timeline response directly from the stream into a primitive array without building the JAXB object tree
+	static GetStatsOutput readStats(InputStream inputStream) throws IOException {
+		XMLStreamReader reader = null;
+		try {
+			reader = xmlInputFactory.createXMLStreamReader(inputStream);
+			GetStatsOutput output = new GetStatsOutput();
+			GetStatsOutput.Data data = null;
+			int[] values = null;
+			int size = 0;
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+				String elementName = reader.getLocalName();
+				if (data == null) {
+					if ("data".equals(elementName)) {
+						data = new GetStatsOutput.Data();
+						output.setData(data);
+					}
+				} else if ("int".equals(elementName) && values != null) {
+					if (size == values.length) {
+						values = Arrays.copyOf(values, size * 2);
+					}
+					values[size++] = Integer.parseInt(reader.getElementText().trim());
+				} else if ("timeline".equals(elementName)) {
+					values = new int[256];
+				} else if ("projectId".equals(elementName)) {
+					data.setProjectId(reader.getElementText());
+				} else if ("groupId".equals(elementName)) {
+					data.setGroupId(reader.getElementText());
+				} else if ("artifactId".equals(elementName)) {
+					data.setArtifactId(reader.getElementText());
+				} else if ("type".equals(elementName)) {
+					data.setType(reader.getElementText());
+				} else if ("total".equals(elementName)) {
+					data.setTotal(Long.parseLong(reader.getElementText().trim()));
+				}
+			}
+			if (values != null) {
+				GetStatsOutput.Data.Timeline timeline = new GetStatsOutput.Data.Timeline();
+				timeline.setValues(Arrays.copyOf(values, size));
+				data.setTimeline(timeline);
+			}
+			return output;
+		} catch (XMLStreamException | NumberFormatException exc) {
+			throw new IOException("Unable to parse the stats response", exc);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException exc) {
+					logger.debug("Unable to close XML stream reader", exc);
+				}
+			}
+		}
+	}
+
 	@lombok.NoArgsConstructor
 	@lombok.Getter
 	@lombok.Setter
@@ -549,7 +860,10 @@ public class NexusConnector {
 
 			private Long ttl;
 			private Integer dayOfTheMonthFromWhichToLeave;
-
+			private Boolean staleWhileRevalidate;
+			private Long maxStaleness;
+			private Boolean incrementalRefresh;
+			private Integer incrementalRefreshOverlap;
 
 		}
 	}
@@ -648,10 +962,29 @@ public class NexusConnector {
     @lombok.ToString
     public static class GetAllStatsOutput implements Serializable {
 
-		private static final long serialVersionUID = 287571224336835644L;
+		private static final long serialVersionUID = -4410923650175287213L;
 
 		private Long totalDownloads;
-    	private List<Integer> downloadsForMonth;
+    	private long[] downloadsForMonth;
+    	//Number of months without downloads at the beginning of the timeline
+    	private int leadingEmptyMonths;
+
+    	//View of the downloads per month in which the leading empty months are null
+    	public List<Long> downloadsForMonthAsList() {
+    		return new AbstractList<Long>() {
+
+    			@Override
+    			public Long get(int index) {
+    				return index < leadingEmptyMonths ? null : downloadsForMonth[index];
+    			}
+
+    			@Override
+    			public int size() {
+    				return downloadsForMonth.length;
+    			}
+
+    		};
+    	}
 
     }
 
@@ -671,6 +1004,11 @@ public class NexusConnector {
 		@XmlElement
 		private Data data;
 
+		long estimateWeight() {
+			int[] values = data != null && data.getTimeline() != null ? data.getTimeline().getValues() : null;
+			return 512 + (values != null ? values.length * 4 : 0);
+		}
+
 		@XmlAccessorType(XmlAccessType.FIELD)
 		@XmlType(namespace = "GetStatsOutput.Data")
 		@lombok.NoArgsConstructor
@@ -708,19 +1046,106 @@ public class NexusConnector {
 
 				private static final long serialVersionUID = 2507704512441988141L;
 
+				//The Java serialized form keeps the list of the previous versions, so that the cached timelines can still be read
+				private static final ObjectStreamField[] serialPersistentFields = {
+					new ObjectStreamField("values", List.class)
+				};
+
 				@XmlElement(name = "int")
-				private List<Integer> values;
+				private int[] values;
+
+				private void writeObject(ObjectOutputStream output) throws IOException {
+					List<Integer> valuesAsList = null;
+					if (values != null) {
+						valuesAsList = new ArrayList<>(values.length);
+						for (int value : values) {
+							valuesAsList.add(value);
+						}
+					}
+					ObjectOutputStream.PutField fields = output.putFields();
+					fields.put("values", valuesAsList);
+					output.writeFields();
+				}
+
+				@SuppressWarnings("unchecked")
+				private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+					List<Integer> valuesAsList = (List<Integer>)input.readFields().get("values", null);
+					if (valuesAsList != null) {
+						values = new int[valuesAsList.size()];
+						for (int i = 0; i < values.length; i++) {
+							Integer value = valuesAsList.get(i);
+							values[i] = value != null ? value : 0;
+						}
+					}
+				}
+
+			}
+		}
+
+	}
 
+	//Immutable lookup tables of the projects and of their artifacts: they are rebuilt and replaced
+	//as a whole every time the projects are loaded
+	private static class Index {
+		private final Map<String, Project> projects;
+		private final Map<String, Map<String, Artifact>> artifactsByName;
+		private final Map<String, Map<String, Collection<Artifact>>> artifactsByAlias;
+
+		private Index(Collection<Project> allProjects) {
+			Map<String, Project> projects = new HashMap<>();
+			Map<String, Map<String, Artifact>> artifactsByName = new HashMap<>();
+			Map<String, Map<String, Collection<Artifact>>> artifactsByAlias = new HashMap<>();
+			for (Project project : allProjects) {
+				if (projects.putIfAbsent(project.getName(), project) != null) {
+					continue;
+				}
+				Map<String, Artifact> artifactsOfProjectByName = new HashMap<>();
+				Map<String, Collection<Artifact>> artifactsOfProjectByAlias = new HashMap<>();
+				for (Artifact artifact : project.getArtifacts()) {
+					artifactsOfProjectByName.putIfAbsent(artifact.getName(), artifact);
+					if (artifact.getAlias() != null) {
+						artifactsOfProjectByAlias.computeIfAbsent(artifact.getAlias(), alias -> new ArrayList<>()).add(artifact);
+					}
+				}
+				artifactsOfProjectByAlias.replaceAll((alias, artifacts) -> Collections.unmodifiableCollection(artifacts));
+				artifactsByName.put(project.getName(), Collections.unmodifiableMap(artifactsOfProjectByName));
+				artifactsByAlias.put(project.getName(), Collections.unmodifiableMap(artifactsOfProjectByAlias));
 			}
+			this.projects = Collections.unmodifiableMap(projects);
+			this.artifactsByName = Collections.unmodifiableMap(artifactsByName);
+			this.artifactsByAlias = Collections.unmodifiableMap(artifactsByAlias);
+		}
+
+		private Project getProject(String name) {
+			return projects.get(name);
+		}
+
+		private Artifact getArtifact(String projectName, String artifactName) {
+			Map<String, Artifact> artifacts = artifactsByName.get(projectName);
+			return artifacts != null ? artifacts.get(artifactName) : null;
+		}
+
+		private Collection<Artifact> getArtifactsForAlias(String projectName, String alias) {
+			Map<String, Collection<Artifact>> artifacts = artifactsByAlias.get(projectName);
+			Collection<Artifact> artifactsForAlias = artifacts != null ? artifacts.get(alias) : null;
+			return artifactsForAlias != null ? artifactsForAlias : Collections.emptyList();
 		}
 
 	}
 
 	public static class Group {
+		private final static int MAX_ROLLUPS = 256;
+		private final static int MAX_MEMOS = 256;
+
 		private Collection<NexusConnector> nexusConnectors;
 		private Configuration configuration;
+		private Map<String, Rollup> rollups;
+		private volatile Map<String, NexusConnector> connectorsByArtifact;
+		private Map<String, CompletableFuture<GetAllStatsOutput>> inFlightQueries;
+		private Map<String, Memo> memos;
+		private long memoTimeToLive;
 
-		public Group(SimpleCache cache, RestTemplate restTemplate, Utility utility, Map<String, Object> configMap) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException, JAXBException, ParseException, IOException {
+		public Group(SimpleCache cache, InMemoryCache inMemoryCache, BackgroundRefresher backgroundRefresher, RefreshScheduler refreshScheduler, Bulkheads bulkheads, CircuitBreakers circuitBreakers, UpstreamScheduler upstreamScheduler, RestTemplate restTemplate, Utility utility, Map<String, Object> configMap) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, ClassNotFoundException, JAXBException, ParseException, IOException {
 			ObjectMapper mapper = new ObjectMapper();
 			Configuration configuration = mapper.readValue(
 				this.getClass().getClassLoader().getResourceAsStream("nexus-connector.group.config.default.json"),
@@ -752,6 +1177,18 @@ public class NexusConnector {
 					//if (cacheConfig.getTtl() == null) {
 						cacheConfig.setTtl(defaultNexusConnectorConfig.getCache().getTtl());
 					//}
+					if (cacheConfig.getStaleWhileRevalidate() == null) {
+						cacheConfig.setStaleWhileRevalidate(defaultNexusConnectorConfig.getCache().getStaleWhileRevalidate());
+					}
+					if (cacheConfig.getMaxStaleness() == null) {
+						cacheConfig.setMaxStaleness(defaultNexusConnectorConfig.getCache().getMaxStaleness());
+					}
+					if (cacheConfig.getIncrementalRefresh() == null) {
+						cacheConfig.setIncrementalRefresh(defaultNexusConnectorConfig.getCache().getIncrementalRefresh());
+					}
+					if (cacheConfig.getIncrementalRefreshOverlap() == null) {
+						cacheConfig.setIncrementalRefreshOverlap(defaultNexusConnectorConfig.getCache().getIncrementalRefreshOverlap());
+					}
 				}
 				if (nexusConnectorConfig.getHost() == null) {
 					nexusConnectorConfig.setHost(defaultNexusConnectorConfig.getHost());
@@ -764,6 +1201,12 @@ public class NexusConnector {
 				}
 				configuration.getConnector().add(nexusConnectorConfig);
 			}
+			Map<String, Object> hostSelectorConfigMap = new HashMap<>();
+			for (Map.Entry<String, Object> configEntry : configMap.entrySet()) {
+				if (configEntry.getKey().startsWith("host-selector.")) {
+					hostSelectorConfigMap.put(configEntry.getKey().substring("host-selector.".length()), configEntry.getValue());
+				}
+			}
 			nexusConnectors = ConcurrentHashMap.newKeySet();
 			this.configuration = configuration;
 			for (org.burningwave.services.NexusConnector.Configuration nexusConfiguration : configuration.getConnector()) {
@@ -771,9 +1214,33 @@ public class NexusConnector {
 					continue;
 				}
 				nexusConfiguration.setStartDate(configuration.getDefaultProjectConfig().getStartDate());
-				NexusConnector nexusConnector = new NexusConnector(restTemplate, cache, utility, nexusConfiguration);
+				NexusConnector nexusConnector = new NexusConnector(restTemplate, cache, inMemoryCache, backgroundRefresher, refreshScheduler, bulkheads, circuitBreakers, upstreamScheduler, utility, nexusConfiguration, hostSelectorConfigMap);
+				nexusConnector.scheduleRefreshes();
 				nexusConnectors.add(nexusConnector);
 			}
+			Map<String, NexusConnector> connectorsByArtifact = new HashMap<>();
+			for (NexusConnector nexusConnector : nexusConnectors) {
+				for (Project project : nexusConnector.allProjects) {
+					for (Project.Artifact artifact : project.getArtifacts()) {
+						connectorsByArtifact.putIfAbsent(project.getName() + ":" + artifact.getName(), nexusConnector);
+					}
+				}
+			}
+			this.connectorsByArtifact = Collections.unmodifiableMap(connectorsByArtifact);
+			rollups = new ConcurrentHashMap<>();
+			inFlightQueries = new ConcurrentHashMap<>();
+			memos = new ConcurrentHashMap<>();
+			memoTimeToLive = Long.parseLong((String)configMap.get("all-stats.memo.ttl"));
+			new SimpleCache.Listener() {
+				@Override
+				public <T extends Serializable> void processChangeNotification(String key, T newValue, T oldValue) {
+					if (newValue instanceof GetStatsOutput) {
+						for (Rollup rollup : rollups.values()) {
+							rollup.update(key, (GetStatsOutput)newValue);
+						}
+					}
+				}
+			}.listenTo(cache);
 		}
 
 		public SimpleCache.Item<String> getLatestRelease(String artifactId) {
@@ -781,17 +1248,12 @@ public class NexusConnector {
 			if (artifactIdAsSplittedString.length != 2) {
 				throw new IllegalArgumentException("artifactId must be in the form 'groupId:artifactId' ('" + artifactId + "' provided)");
 			}
-			for (NexusConnector nexusConnector : nexusConnectors) {
-				for (Project project : nexusConnector.allProjects) {
-					if (project.getName().equals(artifactIdAsSplittedString[0]) &&
-						nexusConnector.containsArtifactNames(project, artifactIdAsSplittedString[1])
-					) {
-						return nexusConnector.getLatestRelease(
-							project.getName(),
-							artifactIdAsSplittedString[1]
-						);
-					}
-				}
+			NexusConnector nexusConnector = connectorsByArtifact.get(artifactIdAsSplittedString[0] + ":" + artifactIdAsSplittedString[1]);
+			if (nexusConnector != null) {
+				return nexusConnector.getLatestRelease(
+					artifactIdAsSplittedString[0],
+					artifactIdAsSplittedString[1]
+				);
 			}
 			return null;
 		}
@@ -799,13 +1261,87 @@ public class NexusConnector {
 		public GetAllStatsOutput getAllStats(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, Date startDate, Integer months)
 			throws ParseException, JAXBException, InterruptedException, ExecutionException
 		{
-			Collection<CompletableFuture<GetStatsOutput>> outputSuppliers = new ArrayList<>();
+			try {
+				return getAllStatsAsync(groupIds, aliases, artifactIds, startDate, months, Deadline.NONE).join();
+			} catch (CompletionException exc) {
+				return Throwables.rethrow(exc.getCause());
+			}
+		}
+
+		//The concurrent identical queries share the same computation (bounded by the deadline of the first one)
+		//and its result is reused for a short time
+		public CompletableFuture<GetAllStatsOutput> getAllStatsAsync(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, Date startDate, Integer months, Deadline deadline) {
+			String queryKey = toQueryKey(groupIds, aliases, artifactIds) + ";" + (startDate != null ? startDate.getTime() : null) + ";" + months;
+			Memo memo = memos.get(queryKey);
+			if (memo != null && memo.expiration >= System.currentTimeMillis()) {
+				return CompletableFuture.completedFuture(memo.output);
+			}
+			CompletableFuture<GetAllStatsOutput> outputSupplier = new CompletableFuture<>();
+			CompletableFuture<GetAllStatsOutput> inFlightOutputSupplier = inFlightQueries.putIfAbsent(queryKey, outputSupplier);
+			if (inFlightOutputSupplier != null) {
+				return inFlightOutputSupplier;
+			}
+			CompletableFuture<GetAllStatsOutput> computation;
+			try {
+				computation = computeAllStats(groupIds, aliases, artifactIds, startDate, months, deadline);
+			} catch (Throwable exc) {
+				computation = new CompletableFuture<>();
+				computation.completeExceptionally(exc);
+			}
+			computation.whenComplete((output, exc) -> {
+				if (exc == null && memoTimeToLive > 0 && canMemoize()) {
+					memos.put(queryKey, new Memo(output, System.currentTimeMillis() + memoTimeToLive));
+				}
+				inFlightQueries.remove(queryKey, outputSupplier);
+				if (exc != null) {
+					outputSupplier.completeExceptionally(exc instanceof CompletionException && exc.getCause() != null ? exc.getCause() : exc);
+				} else {
+					outputSupplier.complete(output);
+				}
+			});
+			return outputSupplier;
+		}
+
+		//The memos are keyed by the query parameters: like the rollups, past the cap the outputs are not
+		//memoized until some of the memos expire
+		private boolean canMemoize() {
+			if (memos.size() < MAX_MEMOS) {
+				return true;
+			}
+			long now = System.currentTimeMillis();
+			memos.values().removeIf(memo -> memo.expiration < now);
+			return memos.size() < MAX_MEMOS;
+		}
+
+		private String toQueryKey(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds) {
+			return
+				new TreeSet<>(groupIds != null ? groupIds : Collections.emptySet()) + ";" + (groupIds != null) + ";" +
+				new TreeSet<>(aliases != null ? aliases : Collections.emptySet()) + ";" + (aliases != null) + ";" +
+				new TreeSet<>(artifactIds != null ? artifactIds : Collections.emptySet()) + ";" + (artifactIds != null);
+		}
+
+		//Returns a future that is already completed when all the outputs are cached and not expired
+		private CompletableFuture<GetAllStatsOutput> computeAllStats(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, Date startDate, Integer months, Deadline deadline)
+			throws ParseException, JAXBException
+		{
+			//The aggregations of the full history timelines are answered by the rollups, if not expired
+			String rollupKey = startDate == null && months == null ?
+				toQueryKey(groupIds, aliases, artifactIds) :
+				null;
+			Rollup rollup = rollupKey != null ? rollups.get(rollupKey) : null;
+			GetAllStatsOutput rollupOutput = rollup != null ? rollup.getOutputIfNotExpired() : null;
+			if (rollupOutput != null) {
+				return CompletableFuture.completedFuture(rollupOutput);
+			}
+			Map<String, CompletableFuture<GetStatsOutput>> outputSuppliers = new LinkedHashMap<>();
+			Map<String, Long> timeToLives = new HashMap<>();
 			for (NexusConnector nexusConnector : nexusConnectors) {
 				Set<String> artifactsToBeLoaded = new LinkedHashSet<>();
-				for (Project project : nexusConnector.allProjects) {
-					if (groupIds != null && !groupIds.contains(project.getName())) {
-						continue;
-					}
+				//The requested groups are resolved through the index instead of scanning all the projects
+				Collection<Project> projects = groupIds != null ?
+					nexusConnector.getProjects(groupIds) :
+					nexusConnector.allProjects;
+				for (Project project : projects) {
 					if (artifactIds == null && aliases == null) {
 						for (Project.Artifact artifact : project.getArtifacts()) {
 							artifactsToBeLoaded.add(project.getName() + ":" + artifact.getName());
@@ -827,25 +1363,78 @@ public class NexusConnector {
 						}
 					}
 					if (aliases != null) {
-						Collection<Project.Artifact> artifacts = nexusConnector.getArtifactForAliases(project, aliases);
-						for (Project.Artifact artifact : artifacts) {
-							artifactsToBeLoaded.add(project.getName() + ":" + artifact.getName());
+						for (String alias : aliases) {
+							for (Project.Artifact artifact : nexusConnector.getArtifactsForAlias(project, alias)) {
+								artifactsToBeLoaded.add(project.getName() + ":" + artifact.getName());
+							}
 						}
 					}
 				}
+				Map<String, GetStatsInput> inputs = new LinkedHashMap<>();
+				Map<String, GetStatsInput> canonicalInputs = new LinkedHashMap<>();
 				for (String projectAndArtifactId : artifactsToBeLoaded) {
-					outputSuppliers.add(CompletableFuture.supplyAsync(() ->
-						nexusConnector.getStats(
-							toInput(nexusConnector, nexusConnector.getProject(projectAndArtifactId.split(":")[0]), projectAndArtifactId.split(":")[1], startDate, months)
-						)
-					));
+					Project project = nexusConnector.getProject(projectAndArtifactId.split(":")[0]);
+					GetStatsInput canonicalInput = toInput(nexusConnector, project, projectAndArtifactId.split(":")[1], null, null);
+					String key = nexusConnector.getKey(canonicalInput);
+					nexusConnector.upstream.recordAccess(nexusConnector.getUpstreamKey(canonicalInput));
+					canonicalInputs.put(key, canonicalInput);
+					inputs.put(key, toInput(nexusConnector, project, projectAndArtifactId.split(":")[1], startDate, months));
+				}
+				//All the keys are resolved in one batch and only the missing or expired outputs are retrieved asynchronously
+				Map<String, GetStatsOutput> cachedOutputs = nexusConnector.loadAllStats(canonicalInputs.keySet());
+				for (Map.Entry<String, GetStatsInput> canonicalInput : canonicalInputs.entrySet()) {
+					GetStatsInput input = inputs.get(canonicalInput.getKey());
+					GetStatsOutput cachedOutput = cachedOutputs.get(canonicalInput.getKey());
+					timeToLives.put(canonicalInput.getKey(), nexusConnector.timeToLiveForInMemoryCache);
+					if (nexusConnector.isFresh(cachedOutput)) {
+						outputSuppliers.put(canonicalInput.getKey(), CompletableFuture.completedFuture(nexusConnector.slice(cachedOutput, canonicalInput.getValue(), input)));
+					} else {
+						CompletableFuture<GetStatsOutput> outputSupplier;
+						try {
+							outputSupplier = CompletableFuture.supplyAsync(() ->
+								nexusConnector.slice(
+									nexusConnector.getStats(canonicalInput.getValue(), canonicalInput.getKey(), cachedOutput, deadline),
+									canonicalInput.getValue(),
+									input
+								),
+								nexusConnector.getExecutor()
+							);
+						} catch (RejectedExecutionException exc) {
+							//The executor of the host is saturated: the call is not run on the request thread, the stale
+							//output, if present, is used instead
+							if (cachedOutput == null) {
+								throw exc;
+							}
+							logger.warn("Unable to refresh {}, the old value will be returned: {}", canonicalInput.getKey(), exc.getMessage());
+							outputSuppliers.put(canonicalInput.getKey(), CompletableFuture.completedFuture(nexusConnector.slice(cachedOutput, canonicalInput.getValue(), input)));
+							continue;
+						}
+						//When the deadline expires the stale output, if present, is used instead of waiting for the refresh
+						if (cachedOutput != null) {
+							outputSupplier = deadline.orElse(outputSupplier, () ->
+								nexusConnector.slice(cachedOutput, canonicalInput.getValue(), input)
+							);
+						}
+						outputSuppliers.put(canonicalInput.getKey(), outputSupplier);
+					}
 				}
 			}
-			GetAllStatsOutput output = merge(outputSuppliers.stream().map(outputSupplier -> outputSupplier.join()).collect(Collectors.toList()));
-			if (output == null) {
+			if (outputSuppliers.isEmpty()) {
 				throw new IllegalArgumentException("No items found for group with id '" + groupIds + "' and for artifact with id '" + artifactIds + "'" + "' and for artifact with alias '" + aliases + "'");
 			}
-			return output;
+			boolean storeRollup = rollupKey != null && (rollup != null || rollups.size() < MAX_ROLLUPS);
+			return CompletableFuture.allOf(outputSuppliers.values().toArray(new CompletableFuture<?>[outputSuppliers.size()])).thenApply(allCompleted -> {
+				Map<String, GetStatsOutput> outputs = new LinkedHashMap<>();
+				for (Map.Entry<String, CompletableFuture<GetStatsOutput>> outputSupplier : outputSuppliers.entrySet()) {
+					outputs.put(outputSupplier.getKey(), outputSupplier.getValue().join());
+				}
+				if (storeRollup) {
+					Rollup newRollup = new Rollup(outputs, timeToLives);
+					rollups.put(rollupKey, newRollup);
+					return newRollup.getOutput();
+				}
+				return merge(outputs.values());
+			});
 		}
 
 		Configuration getConfiguration() {
@@ -863,40 +1452,36 @@ public class NexusConnector {
 			);
 		}
 
-		private GetAllStatsOutput merge(Collection<GetStatsOutput> getStatsOutputs) {
+		private static GetAllStatsOutput merge(Collection<GetStatsOutput> getStatsOutputs) {
 			if (getStatsOutputs != null && getStatsOutputs.size() > 0) {
-				GetAllStatsOutput output = new GetAllStatsOutput();
+				//The timeline of the first output determines the number of months
+				long[] downloadsForMonth = new long[getStatsOutputs.iterator().next().getData().getTimeline().getValues().length];
+				long totalDownloads = 0;
 				for (GetStatsOutput getStatsOutput : getStatsOutputs) {
-					sum(output, getStatsOutput);
+					totalDownloads += getStatsOutput.getData().getTotal();
+					sum(downloadsForMonth, getStatsOutput.getData().getTimeline().getValues());
 				}
-				return cleanUp(output);
+				GetAllStatsOutput output = new GetAllStatsOutput();
+				output.setTotalDownloads(totalDownloads);
+				output.setDownloadsForMonth(downloadsForMonth);
+				output.setLeadingEmptyMonths(countLeadingEmptyMonths(downloadsForMonth));
+				return output;
 			}
 			return null;
 		}
 
-		private GetAllStatsOutput cleanUp(GetAllStatsOutput output) {
-			List<Integer> downloadsForMonth = output.getDownloadsForMonth();
-			for (int i = 0; i <  downloadsForMonth.size(); i++) {
-				if (downloadsForMonth.get(i) == 0) {
-					downloadsForMonth.set(i, null);
-				} else {
-					break;
-				}
+		private static int countLeadingEmptyMonths(long[] downloadsForMonth) {
+			int leadingEmptyMonths = 0;
+			while (leadingEmptyMonths < downloadsForMonth.length && downloadsForMonth[leadingEmptyMonths] == 0) {
+				leadingEmptyMonths++;
 			}
-			return output;
+			return leadingEmptyMonths;
 		}
 
-		private void sum(GetAllStatsOutput output, GetStatsOutput getStatsOutput) {
-			if (output.getTotalDownloads() == null) {
-				output.setTotalDownloads(getStatsOutput.getData().getTotal());
-				output.setDownloadsForMonth(new ArrayList<>(getStatsOutput.getData().getTimeline().getValues()));
-				return;
-			}
-			output.setTotalDownloads(getStatsOutput.getData().getTotal() + output.getTotalDownloads());
-			List<Integer> outputValues = output.getDownloadsForMonth();
-			List<Integer> getStatsOutputValues = getStatsOutput.getData().getTimeline().getValues();
-			for (int i = 0; i < outputValues.size(); i++) {
-				outputValues.set(i, outputValues.get(i) + (i < getStatsOutputValues.size() ? getStatsOutputValues.get(i) : 0));
+		private static void sum(long[] accumulator, int[] values) {
+			int length = Math.min(accumulator.length, values.length);
+			for (int i = 0; i < length; i++) {
+				accumulator[i] += values[i];
 			}
 		}
 
@@ -904,6 +1489,16 @@ public class NexusConnector {
 			for (NexusConnector nexusConnector : nexusConnectors) {
 				nexusConnector.clearCache();
 			}
+			rollups.clear();
+			memos.clear();
+		}
+
+		public Map<String, HostSelector.Stats> getHostStats() {
+			Map<String, HostSelector.Stats> hostStats = new TreeMap<>();
+			for (NexusConnector nexusConnector : nexusConnectors) {
+				hostStats.putAll(nexusConnector.getHostStats());
+			}
+			return hostStats;
 		}
 
 		public Collection<String[]> getAllProjectInfos() {
@@ -917,6 +1512,82 @@ public class NexusConnector {
 			return projectInfos.values();
 		}
 
+		private static class Memo {
+			private final GetAllStatsOutput output;
+			private final long expiration;
+
+			private Memo(GetAllStatsOutput output, long expiration) {
+				this.output = output;
+				this.expiration = expiration;
+			}
+
+		}
+
+		//Sum of the full history timelines of a set of artifacts, updated when the timelines are refreshed
+		private static class Rollup {
+			private Map<String, GetStatsOutput> outputs;
+			private Map<String, Long> timeToLives;
+			private long totalDownloads;
+			private long[] downloadsForMonth;
+			private volatile long expiration;
+			private volatile GetAllStatsOutput output;
+
+			private Rollup(Map<String, GetStatsOutput> outputs, Map<String, Long> timeToLives) {
+				this.outputs = outputs;
+				this.timeToLives = timeToLives;
+				recompute();
+			}
+
+			private GetAllStatsOutput getOutput() {
+				return output;
+			}
+
+			private GetAllStatsOutput getOutputIfNotExpired() {
+				GetAllStatsOutput output = this.output;
+				return System.currentTimeMillis() <= expiration ? output : null;
+			}
+
+			private synchronized void update(String key, GetStatsOutput newOutput) {
+				GetStatsOutput oldOutput = outputs.get(key);
+				if (oldOutput == null || oldOutput == newOutput) {
+					return;
+				}
+				outputs.put(key, newOutput);
+				int[] oldValues = oldOutput.getData().getTimeline().getValues();
+				int[] newValues = newOutput.getData().getTimeline().getValues();
+				if (oldValues.length != downloadsForMonth.length || newValues.length != downloadsForMonth.length) {
+					recompute();
+					return;
+				}
+				totalDownloads += newOutput.getData().getTotal() - oldOutput.getData().getTotal();
+				for (int i = 0; i < downloadsForMonth.length; i++) {
+					downloadsForMonth[i] += newValues[i] - oldValues[i];
+				}
+				publish();
+			}
+
+			private synchronized void recompute() {
+				GetAllStatsOutput mergedOutput = merge(outputs.values());
+				totalDownloads = mergedOutput.getTotalDownloads();
+				downloadsForMonth = mergedOutput.getDownloadsForMonth();
+				publish();
+			}
+
+			private void publish() {
+				long expiration = Long.MAX_VALUE;
+				for (Map.Entry<String, GetStatsOutput> output : outputs.entrySet()) {
+					expiration = Math.min(expiration, output.getValue().getTime().getTime() + timeToLives.get(output.getKey()));
+				}
+				GetAllStatsOutput output = new GetAllStatsOutput();
+				output.setTotalDownloads(totalDownloads);
+				output.setDownloadsForMonth(downloadsForMonth.clone());
+				output.setLeadingEmptyMonths(countLeadingEmptyMonths(downloadsForMonth));
+				this.output = output;
+				this.expiration = expiration;
+			}
+
+		}
+
 
 		@lombok.NoArgsConstructor
 		@lombok.Getter
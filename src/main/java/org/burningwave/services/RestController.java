@@ -30,16 +30,34 @@ package org.burningwave.services;
 
 import java.text.SimpleDateFormat;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.burningwave.Badge;
+import org.burningwave.Bulkheads;
+import org.burningwave.CircuitBreakers;
+import org.burningwave.Deadline;
+import org.burningwave.HttpClientRegistry;
+import org.burningwave.InMemoryCache;
+import org.burningwave.ListenerDispatcher;
+import org.burningwave.RefreshScheduler;
+import org.burningwave.UpstreamScheduler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -60,7 +78,18 @@ public class RestController {
 
 	private NexusConnector.Group nexusConnectorGroup;
 	private GitHubConnector gitHubConnector;
+	private InMemoryCache inMemoryCache;
+	private ListenerDispatcher listenerDispatcher;
+	private Bulkheads bulkheads;
+	private CircuitBreakers circuitBreakers;
+	private HttpClientRegistry httpClientRegistry;
+	private UpstreamScheduler upstreamScheduler;
+	private RefreshScheduler refreshScheduler;
+	private Environment environment;
 	private Badge badge;
+	private long requestTimeout;
+	private long requestBudget;
+	private ScheduledExecutorService timeoutScheduler;
 
     static {
     	logger = org.slf4j.LoggerFactory.getLogger(RestController.class);
@@ -68,12 +97,59 @@ public class RestController {
 
 	public RestController (
 		Badge badge,
+		InMemoryCache inMemoryCache,
+		ListenerDispatcher listenerDispatcher,
+		Bulkheads bulkheads,
+		CircuitBreakers circuitBreakers,
+		HttpClientRegistry httpClientRegistry,
+		UpstreamScheduler upstreamScheduler,
+		RefreshScheduler refreshScheduler,
+		Environment environment,
 		@Nullable NexusConnector.Group nexusConnectorGroup,
-		@Nullable GitHubConnector gitHubConnector
+		@Nullable GitHubConnector gitHubConnector,
+		@Qualifier("restController.config") Map<String, String> configMap
 	) throws InitializeException {
 		this.badge = badge;
+		this.inMemoryCache = inMemoryCache;
+		this.listenerDispatcher = listenerDispatcher;
+		this.bulkheads = bulkheads;
+		this.circuitBreakers = circuitBreakers;
+		this.httpClientRegistry = httpClientRegistry;
+		this.upstreamScheduler = upstreamScheduler;
+		this.refreshScheduler = refreshScheduler;
+		this.environment = environment;
 		this.nexusConnectorGroup = nexusConnectorGroup;
 		this.gitHubConnector = gitHubConnector;
+		requestTimeout = Long.parseLong(configMap.get("request-timeout"));
+		requestBudget = Long.parseLong(configMap.get("request-budget"));
+		timeoutScheduler = bulkheads.getScheduler("request-timeout");
+	}
+
+	//The metrics expose the internal state of the service: like the other operational endpoints they require the application token
+	@GetMapping(path = "/metrics", produces = "application/json")
+	public Map<String, Object> getMetrics(
+		@RequestParam(value = "Authorization", required = false) String authorizationTokenAsQueryParam,
+		@RequestHeader(value = "Authorization", required = false) String authorizationTokenAsHeader,
+		HttpServletResponse response
+	) {
+		String authorizationToken = authorizationTokenAsHeader != null ? authorizationTokenAsHeader : authorizationTokenAsQueryParam;
+		if (!(environment.getProperty("application.authorization.token.type") + " " + environment.getProperty("application.authorization.token")).equals(authorizationToken)) {
+			logger.warn("Cannot retrieve the metrics: unauthorized");
+			response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+			return null;
+		}
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("cache.in-memory", inMemoryCache.getStats());
+		metrics.put("cache.listener-dispatcher", listenerDispatcher.getStats());
+		metrics.put("executors", bulkheads.getStats());
+		metrics.put("circuit-breakers", circuitBreakers.getStats());
+		metrics.put("http-clients", httpClientRegistry.getStats());
+		metrics.put("upstream-quotas", upstreamScheduler.getStats());
+		metrics.put("refresh-scheduler", refreshScheduler.getStats());
+		if (nexusConnectorGroup != null) {
+			metrics.put("nexus-connector.hosts", nexusConnectorGroup.getHostStats());
+		}
+		return metrics;
 	}
 
 	@GetMapping(path = "/nexus-connector/project-info", produces = "application/json")
@@ -124,7 +200,7 @@ public class RestController {
 
 
 	@GetMapping(path = "/stats/total-downloads", produces = "application/json")
-	public Long getTotalDownloads(
+	public CompletableFuture<Long> getTotalDownloads(
 		@RequestParam(value = "groupId", required = false) Set<String> groupIds,
 		@RequestParam(value = "alias", required = false) Set<String> aliases,
 		@RequestParam(value = "artifactId", required = false) Set<String> artifactIds,
@@ -135,37 +211,20 @@ public class RestController {
 	}
 
 	@GetMapping(path = "/stats/downloads-for-month", produces = "application/json")
-	public List<Integer> getDownloadsForMonth(
+	public CompletableFuture<List<Long>> getDownloadsForMonth(
 		@RequestParam(value = "groupId", required = false) Set<String> groupIds,
 		@RequestParam(value = "alias", required = false) Set<String> aliases,
 		@RequestParam(value = "artifactId", required = false) Set<String> artifactIds,
 		@RequestParam(value = "startDate", required = false) String startDate,
 		@RequestParam(value = "months", required = false) String months
 	) {
-		try {
-			try {
-				return nexusConnectorGroup.getAllStats(
-					groupIds,
-					aliases,
-					artifactIds,
-					startDate != null ? new SimpleDateFormat("yyyy-MM").parse(startDate) : null,
-					months != null ? Integer.valueOf(months) : null
-				).getDownloadsForMonth();
-			} catch (NullPointerException exc){
-				if (nexusConnectorGroup == null) {
-					logger.warn("The Nexus connector group is disabled");
-					return null;
-				}
-				throw exc;
-			}
-		} catch (Throwable exc) {
-			logger.error("Exception occurred", exc);
-			return null;
-		}
+		return getAllStats(groupIds, aliases, artifactIds, startDate, months).thenApply(output ->
+			output != null ? output.downloadsForMonthAsList() : null
+		);
 	}
 
 	@GetMapping(path = "/stats/total-downloads-badge", produces = "image/svg+xml")
-	public String getTotalDownloadsBadge(
+	public CompletableFuture<String> getTotalDownloadsBadge(
 		@RequestParam(value = "groupId", required = false) Set<String> groupIds,
 		@RequestParam(value = "alias", required = false) Set<String> aliases,
 		@RequestParam(value = "artifactId", required = false) Set<String> artifactIds,
@@ -175,77 +234,105 @@ public class RestController {
 	) {
 		setNoCachedResponse(response, 43200);
 		String label = "artifact downloads";
-		return badge.build(
-			getTotalDownloadsOrNull(groupIds, aliases, artifactIds, startDate, months),
-			label,
-			label,
-			"#4c1",
-			125
+		return getTotalDownloadsOrNull(groupIds, aliases, artifactIds, startDate, months).thenApply(totalDownloads ->
+			badge.build(
+				totalDownloads,
+				label,
+				label,
+				"#4c1",
+				125
+			)
 		);
 	}
 
 	@GetMapping(path = "/stats/star-count", produces = "application/json")
-	public Integer getStarCount(
+	public CompletableFuture<Integer> getStarCount(
 		@RequestParam(value = "repository", required = true) Set<String> repositories
 	) {
 		return getStarCountOrNull(repositories);
 	}
 
 	@GetMapping(path = "/stats/star-count-badge", produces = "image/svg+xml")
-	public String getStarCountBadge(
+	public CompletableFuture<String> getStarCountBadge(
 		@RequestParam(value = "repository", required = true) Set<String> repositories,
 		HttpServletResponse response
 	) {
 		setNoCachedResponse(response, 3600);
 		String label = "GitHub stars";
-		return badge.build(
-			getStarCountOrNull(repositories),
-			label,
-			"GitHub stars", "#78e", 93
+		return getStarCountOrNull(repositories).thenApply(starCount ->
+			badge.build(
+				starCount,
+				label,
+				"GitHub stars", "#78e", 93
+			)
 		);
 	}
 
-	private Long getTotalDownloadsOrNull(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, String startDate, String months) {
+	private CompletableFuture<Long> getTotalDownloadsOrNull(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, String startDate, String months) {
+		return getAllStats(groupIds, aliases, artifactIds, startDate, months).thenApply(output ->
+			output != null ? output.getTotalDownloads() : null
+		);
+	}
+
+	//The returned future is completed with null if an exception occurs or if the timeout expires. Within the
+	//request budget the stale values are returned in place of the ones whose refresh is not yet completed
+	private CompletableFuture<NexusConnector.GetAllStatsOutput> getAllStats(Set<String> groupIds, Set<String> aliases, Set<String> artifactIds, String startDate, String months) {
+		if (nexusConnectorGroup == null) {
+			logger.warn("The Nexus connector group is disabled");
+			return CompletableFuture.completedFuture(null);
+		}
 		try {
-			try {
-				return nexusConnectorGroup.getAllStats(
+			return withTimeout(
+				nexusConnectorGroup.getAllStatsAsync(
 					groupIds,
 					aliases,
 					artifactIds,
 					startDate != null ? new SimpleDateFormat("yyyy-MM").parse(startDate) : null,
-					months != null ? Integer.valueOf(months) : null
-				).getTotalDownloads();
-			} catch (NullPointerException exc){
-				if (nexusConnectorGroup == null) {
-					logger.warn("The Nexus connector group is disabled");
-					return null;
-				}
-				throw exc;
-			}
-		} catch (IllegalArgumentException exc) {
-			logger.error(exc.getMessage());
-			return null;
+					months != null ? Integer.valueOf(months) : null,
+					Deadline.in(requestBudget)
+				)
+			);
 		} catch (Throwable exc) {
-			logger.error("Exception occurred", exc);
-			return null;
+			return CompletableFuture.completedFuture(logException(exc));
 		}
 	}
 
-	private Integer getStarCountOrNull(Set<String> repositories) {
+	private CompletableFuture<Integer> getStarCountOrNull(Set<String> repositories) {
+		if (gitHubConnector == null) {
+			logger.warn("The GitHub connector is disabled");
+			return CompletableFuture.completedFuture(null);
+		}
 		try {
-			try {
-				return gitHubConnector.getAllStarCount(repositories);
-			} catch (NullPointerException exc){
-				if (gitHubConnector == null) {
-					logger.warn("The GitHub connector is disabled");
-					return null;
-				}
-				throw exc;
-			}
+			return withTimeout(gitHubConnector.getAllStarCountAsync(repositories));
 		} catch (Throwable exc) {
+			return CompletableFuture.completedFuture(logException(exc));
+		}
+	}
+
+	private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> outputSupplier) {
+		CompletableFuture<T> output = new CompletableFuture<>();
+		ScheduledFuture<?> timeoutTask = timeoutScheduler.schedule(() -> {
+			if (output.complete(null)) {
+				logger.warn("Request not completed in {} milliseconds", requestTimeout);
+			}
+		}, requestTimeout, TimeUnit.MILLISECONDS);
+		outputSupplier.whenComplete((value, exc) -> {
+			timeoutTask.cancel(false);
+			output.complete(exc == null ? value : logException(exc));
+		});
+		return output;
+	}
+
+	private <T> T logException(Throwable exc) {
+		if (exc instanceof CompletionException && exc.getCause() != null) {
+			exc = exc.getCause();
+		}
+		if (exc instanceof IllegalArgumentException) {
+			logger.error(exc.getMessage());
+		} else {
 			logger.error("Exception occurred", exc);
-			return null;
 		}
+		return null;
 	}
 
 	private void setNoCachedResponse(HttpServletResponse response, long maxAgeValue) {
@@ -0,0 +1,4 @@
+-- Removes the duplicated keys of the cache items (the most recent item is kept) and adds the unique index
+-- required by the upsert of the database based cache
+DELETE FROM cache_item item USING cache_item newer_item WHERE item.key = newer_item.key AND item.id < newer_item.id;
+CREATE UNIQUE INDEX IF NOT EXISTS cache_item_key_unique ON cache_item (key);